@@ -26,11 +26,63 @@
 package chat.dim.base;
 
 import java.util.Date;
+import java.util.concurrent.atomic.LongAdder;
 
 import chat.dim.data.Converter;
 
 public class BaseConverter implements DataConverter {
 
+    // throw NumberFormatException on error, or return the default value
+    private final boolean strict;
+
+    // count of values failed to convert
+    private final LongAdder failures = new LongAdder();
+
+    public BaseConverter() {
+        this(true);
+    }
+
+    /**
+     *  Create converter
+     *
+     * @param strict - false to return default value when failed to convert,
+     *                 instead of throwing NumberFormatException
+     */
+    public BaseConverter(boolean strict) {
+        super();
+        this.strict = strict;
+    }
+
+    public boolean isStrict() {
+        return strict;
+    }
+
+    /**
+     *  Get count of values failed to convert
+     *
+     * @return failures
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     *  Value error
+     *
+     * @param value        - original value
+     * @param defaultValue - result for non-strict mode
+     * @param type         - target type name
+     * @return default value
+     * @throws NumberFormatException in strict mode
+     */
+    protected <T> T failed(Object value, T defaultValue, String type) throws NumberFormatException {
+        failures.increment();
+        if (strict) {
+            throw new NumberFormatException(type + " value error: \"" + value + "\"");
+        }
+        return defaultValue;
+    }
+
     @Override
     public String getString(Object value, String defaultValue) {
         if (value == null) {
@@ -44,8 +96,8 @@ public class BaseConverter implements DataConverter {
         }
     }
 
-    private String getString(Object value) {
-        return value instanceof String ? (String) value : value.toString();
+    private static CharSequence getChars(Object value) {
+        return value instanceof CharSequence ? (CharSequence) value : value.toString();
     }
 
     @Override
@@ -66,17 +118,22 @@ public class BaseConverter implements DataConverter {
             assert i == 1 || i == 0 : "Boolean value error: " + value;
             return i != 0;
         }
-        String str = getString(value);
-        str = str.trim();
-        if (str.isEmpty()) {
+        CharSequence str = getChars(value);
+        int start = NumberParser.trimStart(str);
+        int end = NumberParser.trimEnd(str, start);
+        if (start == end) {
             return false;
-        } else if (str.length() > Converter.MAX_BOOLEAN_LEN) {
-            throw new NumberFormatException("Boolean value error: \"" + value + "\"");
+        } else if (end - start > Converter.MAX_BOOLEAN_LEN) {
+            return failed(value, defaultValue, "Boolean");
         }
-        str = str.toLowerCase();
-        Boolean state = Converter.BOOLEAN_STATES.get(str);
+        // states table can be customized, try the exact key before lower case
+        String key = str.subSequence(start, end).toString();
+        Boolean state = Converter.BOOLEAN_STATES.get(key);
         if (state == null) {
-            throw new NumberFormatException("Boolean value error: \"" + value + "\"");
+            state = Converter.BOOLEAN_STATES.get(key.toLowerCase());
+        }
+        if (state == null) {
+            return failed(value, defaultValue, "Boolean");
         }
         return state;
     }
@@ -93,8 +150,14 @@ public class BaseConverter implements DataConverter {
         } else if (value instanceof Boolean) {
             return (byte) ((Boolean) value ? 1 : 0);
         }
-        String str = getString(value);
-        return Byte.parseByte(str);
+        CharSequence str = getChars(value);
+        if (NumberParser.isLong(str)) {
+            long number = NumberParser.toLong(str);
+            if (number >= Byte.MIN_VALUE && number <= Byte.MAX_VALUE) {
+                return (byte) number;
+            }
+        }
+        return failed(value, defaultValue, "Byte");
     }
 
     @Override
@@ -109,8 +172,14 @@ public class BaseConverter implements DataConverter {
         } else if (value instanceof Boolean) {
             return (short) ((Boolean) value ? 1 : 0);
         }
-        String str = getString(value);
-        return Short.parseShort(str);
+        CharSequence str = getChars(value);
+        if (NumberParser.isLong(str)) {
+            long number = NumberParser.toLong(str);
+            if (number >= Short.MIN_VALUE && number <= Short.MAX_VALUE) {
+                return (short) number;
+            }
+        }
+        return failed(value, defaultValue, "Short");
     }
 
     @Override
@@ -125,8 +194,14 @@ public class BaseConverter implements DataConverter {
         } else if (value instanceof Boolean) {
             return (Boolean) value ? 1 : 0;
         }
-        String str = getString(value);
-        return Integer.parseInt(str);
+        CharSequence str = getChars(value);
+        if (NumberParser.isLong(str)) {
+            long number = NumberParser.toLong(str);
+            if (number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+                return (int) number;
+            }
+        }
+        return failed(value, defaultValue, "Integer");
     }
 
     @Override
@@ -141,8 +216,11 @@ public class BaseConverter implements DataConverter {
         } else if (value instanceof Boolean) {
             return (Boolean) value ? 1L : 0L;
         }
-        String str = getString(value);
-        return Long.parseLong(str);
+        CharSequence str = getChars(value);
+        if (NumberParser.isLong(str)) {
+            return NumberParser.toLong(str);
+        }
+        return failed(value, defaultValue, "Long");
     }
 
     @Override
@@ -157,8 +235,11 @@ public class BaseConverter implements DataConverter {
         } else if (value instanceof Boolean) {
             return (Boolean) value ? 1.0F : 0.0F;
         }
-        String str = getString(value);
-        return Float.parseFloat(str);
+        CharSequence str = getChars(value);
+        if (NumberParser.isDouble(str)) {
+            return NumberParser.toFloat(str);
+        }
+        return failed(value, defaultValue, "Float");
     }
 
     @Override
@@ -173,8 +254,11 @@ public class BaseConverter implements DataConverter {
         } else if (value instanceof Boolean) {
             return (Boolean) value ? 1.0 : 0.0;
         }
-        String str = getString(value);
-        return Double.parseDouble(str);
+        CharSequence str = getChars(value);
+        if (NumberParser.isDouble(str)) {
+            return NumberParser.toDouble(str);
+        }
+        return failed(value, defaultValue, "Double");
     }
 
     @Override
@@ -186,11 +270,108 @@ public class BaseConverter implements DataConverter {
             return (Date) value;
         }
         Double seconds = getDouble(value, null);
-        if (seconds == null || seconds < 0) {
-            throw new NumberFormatException("Timestamp error: \"" + value + "\"");
+        if (seconds == null) {
+            // failure counted
+            return defaultValue;
+        } else if (seconds < 0) {
+            return failed(value, defaultValue, "Timestamp");
         }
         double millis = seconds * 1000;
         return new Date((long) millis);
     }
 
+    //
+    //  Primitives
+    //
+
+    @Override
+    public boolean getBool(Object value, boolean defaultValue) throws NumberFormatException {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value == null) {
+            return defaultValue;
+        }
+        Boolean state = getBoolean(value, null);
+        return state == null ? defaultValue : state;
+    }
+
+    @Override
+    public int getInt(Object value, int defaultValue) throws NumberFormatException {
+        if (value instanceof Number) {  // Integer, Byte, Short, Long, Float, Double
+            return ((Number) value).intValue();
+        } else if (value == null) {
+            return defaultValue;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        CharSequence str = getChars(value);
+        if (NumberParser.isLong(str)) {
+            long number = NumberParser.toLong(str);
+            if (number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+                return (int) number;
+            }
+        }
+        failed(value, null, "Integer");
+        return defaultValue;
+    }
+
+    @Override
+    public long getLong(Object value, long defaultValue) throws NumberFormatException {
+        if (value instanceof Number) {  // Long, Byte, Short, Integer, Float, Double
+            return ((Number) value).longValue();
+        } else if (value == null) {
+            return defaultValue;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1L : 0L;
+        }
+        CharSequence str = getChars(value);
+        if (NumberParser.isLong(str)) {
+            return NumberParser.toLong(str);
+        }
+        failed(value, null, "Long");
+        return defaultValue;
+    }
+
+    @Override
+    public double getDouble(Object value, double defaultValue) throws NumberFormatException {
+        if (value instanceof Number) {  // Double, Byte, Short, Integer, Long, Float
+            return ((Number) value).doubleValue();
+        } else if (value == null) {
+            return defaultValue;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1.0 : 0.0;
+        }
+        CharSequence str = getChars(value);
+        if (NumberParser.isDouble(str)) {
+            return NumberParser.toDouble(str);
+        }
+        failed(value, null, "Double");
+        return defaultValue;
+    }
+
+    @Override
+    public long getEpochMillis(Object value, long defaultValue) throws NumberFormatException {
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        } else if (value == null) {
+            return defaultValue;
+        }
+        long millis;
+        if (value instanceof Integer || value instanceof Long) {
+            millis = ((Number) value).longValue() * 1000;
+        } else {
+            double seconds = getDouble(value, Double.NaN);
+            if (Double.isNaN(seconds)) {
+                // failure counted
+                return defaultValue;
+            }
+            millis = (long) (seconds * 1000);
+        }
+        if (millis < 0) {
+            failed(value, null, "Timestamp");
+            return defaultValue;
+        }
+        return millis;
+    }
+
 }
@@ -25,11 +25,19 @@
  */
 package chat.dim.base;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import chat.dim.data.Copier;
 import chat.dim.data.Wrapper;
 import chat.dim.type.Mapper;
 
@@ -53,13 +61,9 @@ public class BaseCopier implements DataCopier {
 
     @Override
     public Map<String, Object> copyMap(Map<?, ?> dict) {
-        Map<String, Object> clone = new HashMap<>(dict.size());
-        String key;
-        Object value;
+        Map<String, Object> clone = newMap(dict);
         for (Map.Entry<?, ?> entry : dict.entrySet()) {
-            key = Wrapper.getString(entry.getKey());
-            value = entry.getValue(); // copy(entry.getValue());
-            clone.put(key, value);
+            clone.put(getKey(entry.getKey()), entry.getValue());
         }
         return clone;
     }
@@ -87,24 +91,140 @@ public class BaseCopier implements DataCopier {
 
     @Override
     public Map<String, Object> deepCopyMap(Map<?, ?> dict) {
-        Map<String, Object> clone = new HashMap<>(dict.size());
-        String key;
-        Object value;
-        for (Map.Entry<?, ?> entry : dict.entrySet()) {
-            key = Wrapper.getString(entry.getKey());
-            value = deepCopy(entry.getValue());
-            clone.put(key, value);
-        }
+        Map<String, Object> clone = newMap(dict);
+        copyContainers(dict, clone);
         return clone;
     }
 
     @Override
     public List<Object> deepCopyList(List<?> array) {
         List<Object> clone = new ArrayList<>(array.size());
-        for (Object item : array) {
-            clone.add(deepCopy(item));
-        }
+        copyContainers(array, clone);
         return clone;
     }
 
+    //
+    //  Iterative Deep Copy
+    //
+
+    /**
+     *  Copy task for one container
+     */
+    private static final class Frame {
+
+        final Object source;       // Map or List
+        final Iterator<?> iterator;
+        final Map<String, Object> map;
+        final List<Object> list;
+
+        Frame(Map<?, ?> source, Map<String, Object> clone) {
+            this.source = source;
+            this.iterator = source.entrySet().iterator();
+            this.map = clone;
+            this.list = null;
+        }
+
+        Frame(List<?> source, List<Object> clone) {
+            this.source = source;
+            this.iterator = source.iterator();
+            this.map = null;
+            this.list = clone;
+        }
+    }
+
+    /**
+     *  Copy all nested containers with an explicit stack,
+     *  instead of recursing on the call stack;
+     *  nested maps/lists are copied here, other values by 'deepCopy(Object)'
+     *
+     * @param source - Map or List
+     * @param clone  - target container, with the same type of source
+     */
+    private void copyContainers(Object source, Object clone) {
+        Deque<Frame> stack = new ArrayDeque<>();
+        // containers on the current path, for cycle checking
+        Set<Object> path = Collections.newSetFromMap(new IdentityHashMap<>());
+        push(stack, path, source, clone);
+        Frame frame;
+        Object item;
+        String key;
+        Object value;
+        Object child;
+        while ((frame = stack.peek()) != null) {
+            if (!frame.iterator.hasNext()) {
+                // this container finished
+                stack.pop();
+                path.remove(frame.source);
+                continue;
+            }
+            item = frame.iterator.next();
+            if (frame.map != null) {
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) item;
+                key = getKey(entry.getKey());
+                value = entry.getValue();
+            } else {
+                key = null;
+                value = item;
+            }
+            if (value instanceof Mapper) {
+                value = ((Mapper) value).toMap();
+            }
+            if (value instanceof Map) {
+                child = newMap((Map<?, ?>) value);
+            } else if (value instanceof List) {
+                child = new ArrayList<>(((List<?>) value).size());
+            } else {
+                child = null;
+                // leaf value, let subclasses copy it
+                value = deepCopy(value);
+            }
+            // append to the parent before filling it,
+            // so the order of elements will be kept
+            if (frame.map != null) {
+                frame.map.put(key, child == null ? value : child);
+            } else {
+                frame.list.add(child == null ? value : child);
+            }
+            if (child != null) {
+                push(stack, path, value, child);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void push(Deque<Frame> stack, Set<Object> path, Object source, Object clone) {
+        if (stack.size() >= Copier.MAX_DEPTH) {
+            throw new IllegalArgumentException("too many nesting levels: " + stack.size());
+        } else if (!path.add(source)) {
+            throw new IllegalArgumentException("reference cycle found at level: " + stack.size());
+        }
+        if (source instanceof Map) {
+            stack.push(new Frame((Map<?, ?>) source, (Map<String, Object>) clone));
+        } else {
+            stack.push(new Frame((List<?>) source, (List<Object>) clone));
+        }
+    }
+
+    /**
+     *  Create an empty map large enough to hold all entries without rehashing,
+     *  keeping the entries order if the source is a LinkedHashMap
+     */
+    protected Map<String, Object> newMap(Map<?, ?> dict) {
+        int capacity = capacity(dict.size());
+        if (dict instanceof LinkedHashMap) {
+            return new LinkedHashMap<>(capacity);
+        } else {
+            return new HashMap<>(capacity);
+        }
+    }
+
+    private static int capacity(int size) {
+        // default load factor is 0.75
+        return size < 3 ? size + 1 : (int) (size / 0.75f + 1.0f);
+    }
+
+    private static String getKey(Object key) {
+        return key instanceof String ? (String) key : Wrapper.getString(key);
+    }
+
 }
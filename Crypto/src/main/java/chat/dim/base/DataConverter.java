@@ -43,4 +43,39 @@ public interface DataConverter {
 
     Date   getDateTime(Object value, Date    defaultValue);
 
+    //
+    //  Primitives (without boxing)
+    //
+
+    default boolean getBool(Object value, boolean defaultValue) {
+        Boolean state = getBoolean(value, null);
+        return state == null ? defaultValue : state;
+    }
+
+    default int getInt(Object value, int defaultValue) {
+        Integer number = getInteger(value, null);
+        return number == null ? defaultValue : number;
+    }
+
+    default long getLong(Object value, long defaultValue) {
+        Long number = getLong(value, null);
+        return number == null ? defaultValue : number;
+    }
+
+    default double getDouble(Object value, double defaultValue) {
+        Double number = getDouble(value, null);
+        return number == null ? defaultValue : number;
+    }
+
+    /**
+     *  Get timestamp in milliseconds
+     *
+     * @param value - seconds from 1970-01-01 00:00:00, or Date
+     * @return milliseconds
+     */
+    default long getEpochMillis(Object value, long defaultValue) {
+        Date time = getDateTime(value, null);
+        return time == null ? defaultValue : time.getTime();
+    }
+
 }
@@ -0,0 +1,288 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.base;
+
+/**
+ *  Number Parser
+ *  <p>
+ *      Parse numbers from CharSequence directly,
+ *      surrounding whitespaces are ignored without trimming copies;
+ *      check with 'isXXX()' first, no exception will be thrown.
+ *  </p>
+ */
+final class NumberParser {
+    private NumberParser() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    private static final String MAX_LONG = "9223372036854775807";
+
+    // exact powers of ten in double/float
+    private static final double[] DOUBLE_POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+    };
+    private static final float[] FLOAT_POW10 = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f,
+    };
+
+    static int trimStart(CharSequence s) {
+        int len = s.length();
+        int start = 0;
+        while (start < len && s.charAt(start) <= ' ') {
+            ++start;
+        }
+        return start;
+    }
+
+    static int trimEnd(CharSequence s, int start) {
+        int end = s.length();
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            --end;
+        }
+        return end;
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    //
+    //  Integer
+    //
+
+    /**
+     *  Check decimal integer in range of long
+     */
+    static boolean isLong(CharSequence s) {
+        int start = trimStart(s);
+        int end = trimEnd(s, start);
+        if (start == end) {
+            return false;
+        }
+        boolean negative = false;
+        char ch = s.charAt(start);
+        if (ch == '-' || ch == '+') {
+            negative = ch == '-';
+            if (++start == end) {
+                return false;
+            }
+        }
+        // skip leading zeros
+        while (start < end - 1 && s.charAt(start) == '0') {
+            ++start;
+        }
+        int len = end - start;
+        if (len > MAX_LONG.length()) {
+            return false;
+        }
+        for (int i = start; i < end; ++i) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        if (len < MAX_LONG.length()) {
+            return true;
+        }
+        // compare with max value
+        char max;
+        for (int i = 0; i < len; ++i) {
+            ch = s.charAt(start + i);
+            max = MAX_LONG.charAt(i);
+            if (negative && i == len - 1) {
+                // min value: -9223372036854775808
+                ++max;
+            }
+            if (ch != max) {
+                return ch < max;
+            }
+        }
+        return true;
+    }
+
+    /**
+     *  Parse decimal integer, must check with 'isLong()' first
+     */
+    static long toLong(CharSequence s) {
+        int start = trimStart(s);
+        int end = trimEnd(s, start);
+        boolean negative = false;
+        char ch = s.charAt(start);
+        if (ch == '-' || ch == '+') {
+            negative = ch == '-';
+            ++start;
+        }
+        // accumulating negatively to reach min value
+        long result = 0;
+        for (int i = start; i < end; ++i) {
+            result = result * 10 - (s.charAt(i) - '0');
+        }
+        return negative ? result : -result;
+    }
+
+    //
+    //  Float
+    //
+
+    /**
+     *  Check decimal number: [+-] digits [. digits] [(e|E) [+-] digits] [f|F|d|D],
+     *  or 'NaN', 'Infinity'
+     */
+    static boolean isDouble(CharSequence s) {
+        int start = trimStart(s);
+        int end = trimEnd(s, start);
+        if (start == end) {
+            return false;
+        }
+        char ch = s.charAt(start);
+        if (ch == '-' || ch == '+') {
+            if (++start == end) {
+                return false;
+            }
+        }
+        if (isNamed(s, start, end)) {
+            return true;
+        }
+        ch = s.charAt(end - 1);
+        if (ch == 'f' || ch == 'F' || ch == 'd' || ch == 'D') {
+            // type suffix
+            --end;
+        }
+        int pos = start;
+        int digits = 0;
+        while (pos < end && isDigit(s.charAt(pos))) {
+            ++pos;
+            ++digits;
+        }
+        if (pos < end && s.charAt(pos) == '.') {
+            ++pos;
+            while (pos < end && isDigit(s.charAt(pos))) {
+                ++pos;
+                ++digits;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        } else if (pos == end) {
+            return true;
+        }
+        ch = s.charAt(pos);
+        if (ch != 'e' && ch != 'E') {
+            return false;
+        } else if (++pos < end) {
+            ch = s.charAt(pos);
+            if (ch == '-' || ch == '+') {
+                ++pos;
+            }
+        }
+        if (pos == end) {
+            // exponent digits not found
+            return false;
+        }
+        while (pos < end) {
+            if (!isDigit(s.charAt(pos++))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNamed(CharSequence s, int start, int end) {
+        int len = end - start;
+        if (len == 3) {
+            return s.charAt(start) == 'N' && s.charAt(start + 1) == 'a' && s.charAt(start + 2) == 'N';
+        } else if (len == 8) {
+            return "Infinity".contentEquals(s.subSequence(start, end));
+        }
+        return false;
+    }
+
+    /**
+     *  Parse decimal number, must check with 'isDouble()' first
+     */
+    static double toDouble(CharSequence s) {
+        int start = trimStart(s);
+        int end = trimEnd(s, start);
+        // fast path: no more than 15 digits, no exponent
+        long mantissa = scanDecimal(s, start, end, 15);
+        if (mantissa >= 0) {
+            int scale = (int) (mantissa >>> 56);
+            double value = (mantissa & 0x00FFFFFFFFFFFFFFL) / DOUBLE_POW10[scale];
+            return s.charAt(start) == '-' ? -value : value;
+        }
+        return Double.parseDouble(s.subSequence(start, end).toString());
+    }
+
+    /**
+     *  Parse decimal number, must check with 'isDouble()' first
+     */
+    static float toFloat(CharSequence s) {
+        int start = trimStart(s);
+        int end = trimEnd(s, start);
+        // fast path: no more than 7 digits, no exponent
+        long mantissa = scanDecimal(s, start, end, 7);
+        if (mantissa >= 0) {
+            int scale = (int) (mantissa >>> 56);
+            if (scale < FLOAT_POW10.length) {
+                float value = (mantissa & 0x00FFFFFFFFFFFFFFL) / FLOAT_POW10[scale];
+                return s.charAt(start) == '-' ? -value : value;
+            }
+        }
+        return Float.parseFloat(s.subSequence(start, end).toString());
+    }
+
+    /**
+     *  Scan simple decimal: [+-] digits [. digits]
+     *
+     * @return digits value in low 56 bits, with count of fraction digits in high 8 bits;
+     *         -1 if it's not simple enough
+     */
+    private static long scanDecimal(CharSequence s, int start, int end, int maxDigits) {
+        char ch = s.charAt(start);
+        if (ch == '-' || ch == '+') {
+            ++start;
+        }
+        long value = 0;
+        int digits = 0;
+        int scale = -1;
+        for (int i = start; i < end; ++i) {
+            ch = s.charAt(i);
+            if (isDigit(ch)) {
+                if (++digits > maxDigits) {
+                    return -1;
+                }
+                value = value * 10 + (ch - '0');
+            } else if (ch == '.' && scale < 0) {
+                scale = end - i - 1;
+            } else {
+                // exponent, suffix, named
+                return -1;
+            }
+        }
+        return scale > 0 ? ((long) scale << 56) | value : value;
+    }
+
+}
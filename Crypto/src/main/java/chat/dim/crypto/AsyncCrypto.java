@@ -0,0 +1,144 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.crypto;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import chat.dim.protocol.DecryptKey;
+import chat.dim.protocol.EncryptKey;
+import chat.dim.protocol.SignKey;
+import chat.dim.protocol.VerifyKey;
+
+/**
+ *  Asynchronous Crypto
+ *  <p>
+ *      Runs sign/verify/encrypt/decrypt on the crypto executor,
+ *      when the executor rejects (queue full), the future fails
+ *      with RejectedExecutionException, so callers can back off.
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  AsyncCrypto.executor = AsyncCrypto.createExecutor(4, 1024);
+ *
+ *  AsyncCrypto.decrypt(privateKey, data, params).whenComplete(...);
+ *  </pre></blockquote>
+ */
+public final class AsyncCrypto {
+    private AsyncCrypto() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     *  Executor for crypto operations, should be bounded
+     */
+    public static Executor executor = createExecutor(Runtime.getRuntime().availableProcessors(), 1024);
+
+    /**
+     *  Create bounded executor with daemon threads
+     *
+     * @param threads  - max threads
+     * @param capacity - max waiting tasks
+     * @return executor
+     */
+    public static ThreadPoolExecutor createExecutor(int threads, int capacity) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacity), new DaemonThreadFactory("Crypto", Thread.NORM_PRIORITY));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public static CompletableFuture<byte[]> sign(final SignKey key, final byte[] data) {
+        return submit(new Task<byte[]>() {
+            @Override
+            public byte[] call() {
+                return key.sign(data);
+            }
+        });
+    }
+
+    public static CompletableFuture<Boolean> verify(final VerifyKey key, final byte[] data, final byte[] signature) {
+        return submit(new Task<Boolean>() {
+            @Override
+            public Boolean call() {
+                return key.verify(data, signature);
+            }
+        });
+    }
+
+    public static CompletableFuture<byte[]> encrypt(final EncryptKey key, final byte[] plaintext,
+                                                    final Map<String, Object> extra) {
+        return submit(new Task<byte[]>() {
+            @Override
+            public byte[] call() {
+                return key.encrypt(plaintext, extra);
+            }
+        });
+    }
+
+    public static CompletableFuture<byte[]> decrypt(final DecryptKey key, final byte[] ciphertext,
+                                                    final Map<String, Object> params) {
+        return submit(new Task<byte[]>() {
+            @Override
+            public byte[] call() {
+                return key.decrypt(ciphertext, params);
+            }
+        });
+    }
+
+    private static <T> CompletableFuture<T> submit(final Task<T> task) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (future.isDone()) {
+                        // cancelled
+                        return;
+                    }
+                    try {
+                        future.complete(task.call());
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private interface Task<T> {
+        T call();
+    }
+
+}
@@ -0,0 +1,154 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.crypto;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicStampedReference;
+
+import chat.dim.ext.KeyMatcher;
+import chat.dim.protocol.EncryptKey;
+import chat.dim.protocol.SymmetricKey;
+import chat.dim.type.Dictionary;
+
+/**
+ *  Symmetric Key with cipher context
+ *  <p>
+ *      The cipher context is created on first use and kept with the key,
+ *      so encrypting/decrypting many messages with one session key
+ *      does not set up the cipher again.
+ *  </p>
+ *
+ *  <pre>
+ *  Changing key material ("algorithm", "data") by put()/putAll()/remove()/clear()
+ *  drops the context, it will be created again with the new key data on next use;
+ *  other fields ("iv", "reused", ...) keep it. Changes through toMap() are not tracked.
+ *  Call destroy() when the key is discarded.
+ *  </pre>
+ */
+public abstract class BaseSymmetricKey extends Dictionary implements SymmetricKey {
+
+    // stamp = count of key material changes
+    private final AtomicStampedReference<CipherContext> context = new AtomicStampedReference<>(null, 0);
+
+    protected BaseSymmetricKey(Map<String, Object> key) {
+        super(key);
+    }
+
+    /**
+     *  Create cipher context with key data
+     */
+    protected abstract CipherContext createCipherContext();
+
+    /**
+     *  Check whether the cipher context depends on this field
+     */
+    protected boolean isKeyMaterial(String key) {
+        return "data".equals(key) || "algorithm".equals(key);
+    }
+
+    protected CipherContext getCipherContext() {
+        int[] stamp = new int[1];
+        CipherContext ctx = context.get(stamp);
+        if (ctx == null) {
+            ctx = createCipherContext();
+            // not kept if the key changed while creating
+            if (!context.compareAndSet(null, ctx, stamp[0], stamp[0])) {
+                // created by another thread
+                CipherContext other = context.get(stamp);
+                if (other != null) {
+                    ctx = other;
+                }
+            }
+        }
+        return ctx;
+    }
+
+    /**
+     *  Release the cipher context
+     */
+    public void destroy() {
+        CipherContext ctx = resetCipherContext();
+        if (ctx != null) {
+            ctx.destroy();
+        }
+    }
+
+    /**
+     *  Drop the context after key material changed; not destroyed here,
+     *  as it may still be in use by other threads
+     *
+     * @return old context
+     */
+    protected CipherContext resetCipherContext() {
+        int[] stamp = new int[1];
+        CipherContext ctx;
+        do {
+            ctx = context.get(stamp);
+        } while (!context.compareAndSet(ctx, null, stamp[0], stamp[0] + 1));
+        return ctx;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object old = super.put(key, value);
+        if (isKeyMaterial(key) && (old == null ? value != null : !old.equals(value))) {
+            resetCipherContext();
+        }
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        Object old = super.remove(key);
+        if (old != null && key instanceof String && isKeyMaterial((String) key)) {
+            resetCipherContext();
+        }
+        return old;
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> m) {
+        super.putAll(m);
+        for (String key : m.keySet()) {
+            if (isKeyMaterial(key)) {
+                resetCipherContext();
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        resetCipherContext();
+    }
+
+    @Override
+    public boolean matchEncryptKey(EncryptKey pKey) {
+        return KeyMatcher.matchSymmetricKeys(pKey, this);
+    }
+
+}
@@ -0,0 +1,135 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.crypto;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.spec.AlgorithmParameterSpec;
+
+import javax.crypto.Cipher;
+
+import chat.dim.type.ObjectPool;
+
+/**
+ *  Cipher Context
+ *  <p>
+ *      Keeps a pool of ciphers for a secret key (shared by all threads),
+ *      so the cipher instance (and its key schedule) is reused,
+ *      each call only re-initializes it with the new parameters (IV).
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  CipherContext context = new CipherContext("AES/CBC/PKCS5Padding", new SecretKeySpec(data, "AES"));
+ *  byte[] ciphertext = context.encrypt(plaintext, new IvParameterSpec(iv));
+ *  byte[] plaintext = context.decrypt(ciphertext, new IvParameterSpec(iv));
+ *  // when the key is discarded
+ *  context.destroy();
+ *  </pre></blockquote>
+ */
+public class CipherContext {
+
+    private final String transformation;
+    private final Key secretKey;
+
+    private final ObjectPool<Cipher> ciphers = new ObjectPool<Cipher>() {
+        @Override
+        protected Cipher create() {
+            try {
+                return createCipher();
+            } catch (GeneralSecurityException e) {
+                // unwrapped by process()
+                throw new IllegalStateException("failed to create cipher: " + transformation, e);
+            }
+        }
+    };
+
+    private volatile boolean destroyed = false;
+
+    public CipherContext(String transformation, Key secretKey) {
+        super();
+        this.transformation = transformation;
+        this.secretKey = secretKey;
+    }
+
+    public String getTransformation() {
+        return transformation;
+    }
+
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     *  Release idle ciphers and stop using this context
+     */
+    public void destroy() {
+        destroyed = true;
+        ciphers.clear();
+    }
+
+    /**
+     *  Create cipher for the pool
+     */
+    protected Cipher createCipher() throws GeneralSecurityException {
+        return Cipher.getInstance(transformation);
+    }
+
+    private byte[] process(int mode, byte[] data, AlgorithmParameterSpec params) throws GeneralSecurityException {
+        if (destroyed) {
+            throw new IllegalStateException("cipher context destroyed: " + transformation);
+        }
+        Cipher cipher;
+        try {
+            cipher = ciphers.borrow();
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException) e.getCause();
+            }
+            throw e;
+        }
+        try {
+            if (params == null) {
+                cipher.init(mode, secretKey);
+            } else {
+                cipher.init(mode, secretKey, params);
+            }
+            return cipher.doFinal(data);
+        } finally {
+            if (!destroyed) {
+                ciphers.release(cipher);
+            }
+        }
+    }
+
+    public byte[] encrypt(byte[] plaintext, AlgorithmParameterSpec params) throws GeneralSecurityException {
+        return process(Cipher.ENCRYPT_MODE, plaintext, params);
+    }
+
+    public byte[] decrypt(byte[] ciphertext, AlgorithmParameterSpec params) throws GeneralSecurityException {
+        return process(Cipher.DECRYPT_MODE, ciphertext, params);
+    }
+
+}
@@ -0,0 +1,164 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.crypto;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import chat.dim.protocol.PrivateKey;
+
+/**
+ *  Private Key Factory with pre-generated keys
+ *  <p>
+ *      Keeps some fresh keys ready, refills them in background,
+ *      and generates synchronously when the pool is empty.
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  PrivateKey.setFactory("RSA", new PooledPrivateKeyFactory(rsaFactory, 8));
+ *  </pre></blockquote>
+ */
+public class PooledPrivateKeyFactory implements PrivateKey.Factory {
+
+    private final PrivateKey.Factory factory;
+    private final int capacity;
+    private final Executor executor;
+
+    private final Queue<PrivateKey> keys = new ConcurrentLinkedQueue<>();
+    // keys ready + generating
+    private final AtomicInteger reserved = new AtomicInteger(0);
+
+    /**
+     *  Create pooled factory
+     *
+     * @param factory  - original factory
+     * @param capacity - max keys kept ready
+     * @param executor - bounded executor for generating
+     */
+    public PooledPrivateKeyFactory(PrivateKey.Factory factory, int capacity, Executor executor) {
+        super();
+        assert capacity > 0 : "pool capacity error: " + capacity;
+        this.factory = factory;
+        this.capacity = capacity;
+        this.executor = executor;
+    }
+
+    public PooledPrivateKeyFactory(PrivateKey.Factory factory, int capacity) {
+        this(factory, capacity, createExecutor(1, capacity));
+    }
+
+    /**
+     *  Create bounded executor with daemon threads
+     *
+     * @param threads  - max threads
+     * @param capacity - max waiting tasks
+     * @return executor
+     */
+    public static ThreadPoolExecutor createExecutor(int threads, int capacity) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacity), new DaemonThreadFactory("KeyGen", Thread.MIN_PRIORITY));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     *  Count of keys ready
+     */
+    public int getAvailableCount() {
+        return keys.size();
+    }
+
+    /**
+     *  Start filling the pool
+     */
+    public void prefill() {
+        refill();
+    }
+
+    @Override
+    public PrivateKey generatePrivateKey() {
+        PrivateKey key = keys.poll();
+        if (key != null) {
+            reserved.decrementAndGet();
+        }
+        refill();
+        if (key == null) {
+            // pool is empty
+            key = factory.generatePrivateKey();
+        }
+        return key;
+    }
+
+    @Override
+    public PrivateKey parsePrivateKey(Map<String, Object> key) {
+        return factory.parsePrivateKey(key);
+    }
+
+    protected void refill() {
+        int count;
+        while (true) {
+            count = reserved.get();
+            if (count >= capacity) {
+                return;
+            } else if (!reserved.compareAndSet(count, count + 1)) {
+                continue;
+            }
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        generate();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // executor busy, try again next time
+                reserved.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void generate() {
+        PrivateKey key = null;
+        try {
+            key = factory.generatePrivateKey();
+        } finally {
+            if (key == null) {
+                reserved.decrementAndGet();
+            } else {
+                keys.offer(key);
+            }
+        }
+    }
+
+}
@@ -122,8 +122,42 @@ public final class Converter {
         return converter.getDateTime(value, null);
     }
 
+    //
+    //  Primitives (without boxing)
+    //
+
+    public static boolean getBool(Object value, boolean defaultValue) {
+        return converter.getBool(value, defaultValue);
+    }
+
+    public static int getInt(Object value, int defaultValue) {
+        return converter.getInt(value, defaultValue);
+    }
+
+    public static long getLong(Object value, long defaultValue) {
+        return converter.getLong(value, defaultValue);
+    }
+
+    public static double getDouble(Object value, double defaultValue) {
+        return converter.getDouble(value, defaultValue);
+    }
+
+    /**
+     *  Assume value can be a timestamp:
+     *        (seconds from 1970-01-01 00:00:00)
+     *
+     * @return milliseconds
+     */
+    public static long getEpochMillis(Object value, long defaultValue) {
+        return converter.getEpochMillis(value, defaultValue);
+    }
+
     /**
      *  Default Converter
+     *  <p>
+     *      use 'new BaseConverter(false)' to return default values
+     *      instead of throwing NumberFormatException for bad values
+     *  </p>
      */
     public static DataConverter converter = new BaseConverter();
 
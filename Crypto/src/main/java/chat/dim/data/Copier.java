@@ -39,6 +39,11 @@ public final class Copier {
         throw new AssertionError("Utility class cannot be instantiated");
     }
 
+    /**
+     *  Max nesting levels for deep copy
+     */
+    public static int MAX_DEPTH = 512;
+
     /**
      *  Shallow Copy
      */
@@ -56,6 +61,10 @@ public final class Copier {
 
     /**
      *  Deep Copy
+     *  <p>
+     *      throws IllegalArgumentException when the object is nested too deep,
+     *      or contains a reference cycle
+     *  </p>
      */
     public static Object deepCopy(Object object) {
         return copier.deepCopy(object);
@@ -0,0 +1,181 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.ext;
+
+import java.util.Map;
+
+import chat.dim.data.Converter;
+import chat.dim.data.Wrapper;
+import chat.dim.protocol.PrivateKey;
+import chat.dim.protocol.PublicKey;
+import chat.dim.protocol.SymmetricKey;
+
+/**
+ *  CryptographyKey GeneralFactory
+ *  <p>
+ *      Default helper for symmetric/private/public keys,
+ *      factories are kept in lock-free registries with '*' as fallback.
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  new BaseCryptoHelper().install();
+ *  SymmetricKey.setFactory("AES", aesFactory);
+ *  </pre></blockquote>
+ */
+public class BaseCryptoHelper implements SymmetricKeyHelper, PrivateKeyHelper, PublicKeyHelper,
+                                         GeneralCryptoHelper {
+
+    private final FactoryRegistry<SymmetricKey.Factory> symmetricKeyFactories = new FactoryRegistry<>();
+    private final FactoryRegistry<PrivateKey.Factory> privateKeyFactories = new FactoryRegistry<>();
+    private final FactoryRegistry<PublicKey.Factory> publicKeyFactories = new FactoryRegistry<>();
+
+    /**
+     *  Set this as all crypto helpers
+     */
+    public void install() {
+        SharedCryptoExtensions.symmetricHelper = this;
+        SharedCryptoExtensions.privateHelper = this;
+        SharedCryptoExtensions.publicHelper = this;
+        SharedCryptoExtensions.helper = this;
+    }
+
+    @Override
+    public String getKeyAlgorithm(Map<?, ?> key, String defaultValue) {
+        Object algorithm = key.get("algorithm");
+        return Converter.getString(algorithm, defaultValue);
+    }
+
+    //
+    //  SymmetricKey
+    //
+
+    @Override
+    public void setSymmetricKeyFactory(String algorithm, SymmetricKey.Factory factory) {
+        symmetricKeyFactories.put(algorithm, factory);
+    }
+
+    @Override
+    public SymmetricKey.Factory getSymmetricKeyFactory(String algorithm) {
+        return symmetricKeyFactories.get(algorithm);
+    }
+
+    @Override
+    public SymmetricKey generateSymmetricKey(String algorithm) {
+        SymmetricKey.Factory factory = symmetricKeyFactories.get(algorithm);
+        assert factory != null : "key algorithm not support: " + algorithm;
+        return factory == null ? null : factory.generateSymmetricKey();
+    }
+
+    @Override
+    public SymmetricKey parseSymmetricKey(Object key) {
+        if (key == null) {
+            return null;
+        } else if (key instanceof SymmetricKey) {
+            return (SymmetricKey) key;
+        }
+        Map<String, Object> info = Wrapper.getMap(key);
+        if (info == null) {
+            assert false : "key error: " + key;
+            return null;
+        }
+        String algorithm = getKeyAlgorithm(info, null);
+        SymmetricKey.Factory factory = symmetricKeyFactories.resolve(algorithm);
+        assert factory != null : "key algorithm not support: " + algorithm;
+        return factory == null ? null : factory.parseSymmetricKey(info);
+    }
+
+    //
+    //  PrivateKey
+    //
+
+    @Override
+    public void setPrivateKeyFactory(String algorithm, PrivateKey.Factory factory) {
+        privateKeyFactories.put(algorithm, factory);
+    }
+
+    @Override
+    public PrivateKey.Factory getPrivateKeyFactory(String algorithm) {
+        return privateKeyFactories.get(algorithm);
+    }
+
+    @Override
+    public PrivateKey generatePrivateKey(String algorithm) {
+        PrivateKey.Factory factory = privateKeyFactories.get(algorithm);
+        assert factory != null : "key algorithm not support: " + algorithm;
+        return factory == null ? null : factory.generatePrivateKey();
+    }
+
+    @Override
+    public PrivateKey parsePrivateKey(Object key) {
+        if (key == null) {
+            return null;
+        } else if (key instanceof PrivateKey) {
+            return (PrivateKey) key;
+        }
+        Map<String, Object> info = Wrapper.getMap(key);
+        if (info == null) {
+            assert false : "key error: " + key;
+            return null;
+        }
+        String algorithm = getKeyAlgorithm(info, null);
+        PrivateKey.Factory factory = privateKeyFactories.resolve(algorithm);
+        assert factory != null : "key algorithm not support: " + algorithm;
+        return factory == null ? null : factory.parsePrivateKey(info);
+    }
+
+    //
+    //  PublicKey
+    //
+
+    @Override
+    public void setPublicKeyFactory(String algorithm, PublicKey.Factory factory) {
+        publicKeyFactories.put(algorithm, factory);
+    }
+
+    @Override
+    public PublicKey.Factory getPublicKeyFactory(String algorithm) {
+        return publicKeyFactories.get(algorithm);
+    }
+
+    @Override
+    public PublicKey parsePublicKey(Object key) {
+        if (key == null) {
+            return null;
+        } else if (key instanceof PublicKey) {
+            return (PublicKey) key;
+        }
+        Map<String, Object> info = Wrapper.getMap(key);
+        if (info == null) {
+            assert false : "key error: " + key;
+            return null;
+        }
+        String algorithm = getKeyAlgorithm(info, null);
+        PublicKey.Factory factory = publicKeyFactories.resolve(algorithm);
+        assert factory != null : "key algorithm not support: " + algorithm;
+        return factory == null ? null : factory.parsePublicKey(info);
+    }
+
+}
@@ -0,0 +1,167 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.ext;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+import chat.dim.data.Wrapper;
+import chat.dim.format.JSONMap;
+import chat.dim.protocol.DecryptKey;
+import chat.dim.protocol.TransportableData;
+import chat.dim.protocol.TransportableFile;
+import chat.dim.type.Mapper;
+
+/**
+ *  Format GeneralFactory
+ *  <p>
+ *      Default helper for TED &amp; PNF
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  new BaseFormatHelper().install();
+ *  TransportableData.setFactory(tedFactory);
+ *  TransportableFile.setFactory(pnfFactory);
+ *  </pre></blockquote>
+ */
+public class BaseFormatHelper implements TransportableDataHelper, TransportableFileHelper {
+
+    private volatile TransportableData.Factory tedFactory = null;
+    private volatile TransportableFile.Factory pnfFactory = null;
+
+    /**
+     *  Set this as all format helpers
+     */
+    public void install() {
+        SharedFormatExtensions.tedHelper = this;
+        SharedFormatExtensions.pnfHelper = this;
+    }
+
+    //
+    //  TED
+    //
+
+    @Override
+    public void setTransportableDataFactory(TransportableData.Factory factory) {
+        tedFactory = factory;
+    }
+
+    @Override
+    public TransportableData.Factory getTransportableDataFactory() {
+        return tedFactory;
+    }
+
+    @Override
+    public TransportableData parseTransportableData(Object ted) {
+        if (ted == null) {
+            return null;
+        } else if (ted instanceof TransportableData) {
+            return (TransportableData) ted;
+        }
+        String str = ted instanceof String ? (String) ted : Wrapper.getString(ted);
+        if (str == null) {
+            assert false : "TED error: " + ted;
+            return null;
+        }
+        TransportableData.Factory factory = tedFactory;
+        assert factory != null : "TED factory not ready";
+        return factory == null ? null : factory.parseTransportableData(str);
+    }
+
+    //
+    //  PNF
+    //
+
+    @Override
+    public void setTransportableFileFactory(TransportableFile.Factory factory) {
+        pnfFactory = factory;
+    }
+
+    @Override
+    public TransportableFile.Factory getTransportableFileFactory() {
+        return pnfFactory;
+    }
+
+    @Override
+    public TransportableFile createTransportableFile(TransportableData data, String filename,
+                                                     URI url, DecryptKey password) {
+        TransportableFile.Factory factory = pnfFactory;
+        assert factory != null : "PNF factory not ready";
+        return factory == null ? null : factory.createTransportableFile(data, filename, url, password);
+    }
+
+    @Override
+    public TransportableFile parseTransportableFile(Object pnf) {
+        if (pnf == null) {
+            return null;
+        } else if (pnf instanceof TransportableFile) {
+            return (TransportableFile) pnf;
+        }
+        Map<String, Object> info = getFileInfo(pnf);
+        if (info == null) {
+            assert false : "PNF error: " + pnf;
+            return null;
+        }
+        TransportableFile.Factory factory = pnfFactory;
+        assert factory != null : "PNF factory not ready";
+        return factory == null ? null : factory.parseTransportableFile(info);
+    }
+
+    /**
+     *  Get file info from map, JSON, URL or data URI
+     *
+     * @param pnf - map or string
+     * @return file info
+     */
+    @SuppressWarnings("unchecked")
+    protected Map<String, Object> getFileInfo(Object pnf) {
+        if (pnf instanceof Mapper) {
+            return ((Mapper) pnf).toMap();
+        } else if (pnf instanceof Map) {
+            return (Map<String, Object>) pnf;
+        }
+        String text = pnf instanceof String ? (String) pnf : Wrapper.getString(pnf);
+        if (text == null || text.isEmpty()) {
+            return null;
+        } else if (text.charAt(0) == '{') {
+            // JSON
+            return JSONMap.decode(text);
+        }
+        Map<String, Object> info = new HashMap<>();
+        if (text.startsWith("data:")) {
+            // data URI
+            info.put("data", text);
+        } else if (text.indexOf("://") > 0) {
+            // URL
+            info.put("URL", text);
+        } else {
+            return null;
+        }
+        return info;
+    }
+
+}
@@ -0,0 +1,266 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.ext;
+
+import java.util.Map;
+
+import chat.dim.data.Converter;
+import chat.dim.data.Copier;
+import chat.dim.data.Wrapper;
+import chat.dim.protocol.PrivateKey;
+import chat.dim.protocol.PublicKey;
+import chat.dim.protocol.SymmetricKey;
+import chat.dim.type.BoundedCache;
+
+/**
+ *  Key helpers with parsed-key cache
+ *  <p>
+ *      Asymmetric keys parsed from maps are cached by the whole key info,
+ *      so the same key info returns the same key object without decoding again;
+ *      symmetric keys are not cached, as they are changed per session.
+ *  </p>
+ *
+ *  <pre>
+ *  Cached keys are parsed from private copies of the key info,
+ *  changing the caller's map later does not affect them;
+ *  but they are shared by all callers, so they should not be modified.
+ *  Use soft/weak references to let the GC reclaim keys under memory pressure.
+ *  </pre>
+ *
+ *  <blockquote><pre>
+ *  // after the real helpers installed
+ *  new CachedKeyHelper(4096, BoundedCache.SOFT).install();
+ *  </pre></blockquote>
+ */
+public class CachedKeyHelper implements SymmetricKeyHelper, PrivateKeyHelper, PublicKeyHelper {
+
+    private final SymmetricKeyHelper symmetricHelper;
+    private final PrivateKeyHelper privateHelper;
+    private final PublicKeyHelper publicHelper;
+
+    private final BoundedCache<CacheKey, PrivateKey> privateKeys;
+    private final BoundedCache<CacheKey, PublicKey> publicKeys;
+
+    public CachedKeyHelper(SymmetricKeyHelper symmetricHelper,
+                           PrivateKeyHelper privateHelper, PublicKeyHelper publicHelper,
+                           int capacity, int strength) {
+        super();
+        this.symmetricHelper = symmetricHelper;
+        this.privateHelper = privateHelper;
+        this.publicHelper = publicHelper;
+        int concurrency = Runtime.getRuntime().availableProcessors() * 2;
+        privateKeys = new BoundedCache<>(capacity, concurrency, strength);
+        publicKeys = new BoundedCache<>(capacity, concurrency, strength);
+    }
+
+    /**
+     *  Wrap the current helpers
+     *
+     * @param capacity - max keys for each kind
+     * @param strength - BoundedCache.STRONG, SOFT or WEAK
+     */
+    public CachedKeyHelper(int capacity, int strength) {
+        this(SharedCryptoExtensions.symmetricHelper,
+                SharedCryptoExtensions.privateHelper, SharedCryptoExtensions.publicHelper,
+                capacity, strength);
+    }
+
+    /**
+     *  Set this as key helpers
+     */
+    public void install() {
+        SharedCryptoExtensions.symmetricHelper = this;
+        SharedCryptoExtensions.privateHelper = this;
+        SharedCryptoExtensions.publicHelper = this;
+    }
+
+    public BoundedCache<?, PrivateKey> getPrivateKeyCache() {
+        return privateKeys;
+    }
+
+    public BoundedCache<?, PublicKey> getPublicKeyCache() {
+        return publicKeys;
+    }
+
+    /**
+     *  Get cache key for key info
+     *
+     * @return null when key data not found
+     */
+    protected CacheKey getCacheKey(Map<String, Object> info) {
+        if (Converter.getString(info.get("data"), null) == null) {
+            return null;
+        }
+        return new CacheKey(info);
+    }
+
+    //
+    //  SymmetricKey
+    //
+
+    @Override
+    public void setSymmetricKeyFactory(String algorithm, SymmetricKey.Factory factory) {
+        symmetricHelper.setSymmetricKeyFactory(algorithm, factory);
+    }
+
+    @Override
+    public SymmetricKey.Factory getSymmetricKeyFactory(String algorithm) {
+        return symmetricHelper.getSymmetricKeyFactory(algorithm);
+    }
+
+    @Override
+    public SymmetricKey generateSymmetricKey(String algorithm) {
+        return symmetricHelper.generateSymmetricKey(algorithm);
+    }
+
+    @Override
+    public SymmetricKey parseSymmetricKey(Object key) {
+        // session keys carry mutable params ("iv", "reused", ...), not cached
+        return symmetricHelper.parseSymmetricKey(key);
+    }
+
+    //
+    //  PrivateKey
+    //
+
+    @Override
+    public void setPrivateKeyFactory(String algorithm, PrivateKey.Factory factory) {
+        privateHelper.setPrivateKeyFactory(algorithm, factory);
+        privateKeys.clear();
+    }
+
+    @Override
+    public PrivateKey.Factory getPrivateKeyFactory(String algorithm) {
+        return privateHelper.getPrivateKeyFactory(algorithm);
+    }
+
+    @Override
+    public PrivateKey generatePrivateKey(String algorithm) {
+        return privateHelper.generatePrivateKey(algorithm);
+    }
+
+    @Override
+    public PrivateKey parsePrivateKey(Object key) {
+        if (key == null || key instanceof PrivateKey) {
+            return privateHelper.parsePrivateKey(key);
+        }
+        Map<String, Object> info = Wrapper.getMap(key);
+        CacheKey ck = info == null ? null : getCacheKey(info);
+        if (ck == null) {
+            return privateHelper.parsePrivateKey(key);
+        }
+        PrivateKey result = privateKeys.get(ck);
+        if (result == null) {
+            // parse from a private copy, not the caller's map
+            result = privateHelper.parsePrivateKey(Copier.deepCopyMap(info));
+            if (result != null) {
+                privateKeys.put(ck.snapshot(), result);
+            }
+        }
+        return result;
+    }
+
+    //
+    //  PublicKey
+    //
+
+    @Override
+    public void setPublicKeyFactory(String algorithm, PublicKey.Factory factory) {
+        publicHelper.setPublicKeyFactory(algorithm, factory);
+        publicKeys.clear();
+    }
+
+    @Override
+    public PublicKey.Factory getPublicKeyFactory(String algorithm) {
+        return publicHelper.getPublicKeyFactory(algorithm);
+    }
+
+    @Override
+    public PublicKey parsePublicKey(Object key) {
+        if (key == null || key instanceof PublicKey) {
+            return publicHelper.parsePublicKey(key);
+        }
+        Map<String, Object> info = Wrapper.getMap(key);
+        CacheKey ck = info == null ? null : getCacheKey(info);
+        if (ck == null) {
+            return publicHelper.parsePublicKey(key);
+        }
+        PublicKey result = publicKeys.get(ck);
+        if (result == null) {
+            // parse from a private copy, not the caller's map
+            result = publicHelper.parsePublicKey(Copier.deepCopyMap(info));
+            if (result != null) {
+                publicKeys.put(ck.snapshot(), result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     *  Whole key info, so keys with different params (e.g.: "iv", "mode")
+     *  are never mixed up
+     */
+    protected static final class CacheKey {
+
+        private final Map<?, ?> info;
+        private final int hash;
+
+        public CacheKey(Map<?, ?> info) {
+            this(info, info.hashCode());
+        }
+
+        private CacheKey(Map<?, ?> info, int hash) {
+            super();
+            this.info = info;
+            this.hash = hash;
+        }
+
+        /**
+         *  Copy of the key info for storing in cache,
+         *  not changed when the caller modifies its map
+         */
+        public CacheKey snapshot() {
+            return new CacheKey(Copier.deepCopyMap(info), hash);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            } else if (other instanceof CacheKey) {
+                CacheKey that = (CacheKey) other;
+                return hash == that.hash && info.equals(that.info);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.ext;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ *  Factory Registry
+ *  <p>
+ *      Copy-on-write table for factories of algorithms/types,
+ *      reading is lock-free on an immutable snapshot,
+ *      writing replaces the whole snapshot atomically.
+ *  </p>
+ *
+ *  <pre>
+ *  Factories are registered at startup and looked up on every parsing,
+ *  so the snapshot is copied on each write to keep the reads cheap;
+ *  with caching enabled, the resolved factory for each type (including
+ *  the wildcard fallback and misses) is remembered until the next write.
+ *  </pre>
+ *
+ * @param <F> - factory type
+ */
+public class FactoryRegistry<F> {
+
+    /**
+     *  Key for default factory
+     */
+    public static final String ANY = "*";
+
+    // max types to remember in each snapshot
+    public static int MAX_CACHED = 256;
+
+    private final AtomicReference<Snapshot<F>> current;
+    private final boolean caching;
+
+    public FactoryRegistry(boolean caching) {
+        super();
+        this.caching = caching;
+        this.current = new AtomicReference<>(new Snapshot<>(Collections.emptyMap(), caching));
+    }
+
+    public FactoryRegistry() {
+        this(true);
+    }
+
+    /**
+     *  Register factory for type, or remove it with null
+     *
+     * @param type    - algorithm/type
+     * @param factory - factory
+     * @return previous factory
+     */
+    public F put(String type, F factory) {
+        Snapshot<F> prev;
+        Map<String, F> next;
+        do {
+            prev = current.get();
+            next = new HashMap<>(prev.factories);
+            if (factory == null) {
+                next.remove(type);
+            } else {
+                next.put(type, factory);
+            }
+        } while (!current.compareAndSet(prev, new Snapshot<>(next, caching)));
+        return prev.factories.get(type);
+    }
+
+    public F remove(String type) {
+        return put(type, null);
+    }
+
+    /**
+     *  Get factory for exactly this type
+     */
+    public F get(String type) {
+        return current.get().factories.get(type);
+    }
+
+    /**
+     *  Get factory for type, or the default one ('*')
+     */
+    public F resolve(String type) {
+        return current.get().resolve(type);
+    }
+
+    public int size() {
+        return current.get().factories.size();
+    }
+
+    /**
+     *  Get all factories
+     *
+     * @return immutable snapshot
+     */
+    public Map<String, F> toMap() {
+        return current.get().factories;
+    }
+
+    //
+    //  Immutable table
+    //
+
+    private static final class Snapshot<F> {
+
+        // placeholder for types without factory
+        private static final Object MISSED = new Object();
+
+        final Map<String, F> factories;
+        private final Map<String, Object> resolved;
+
+        Snapshot(Map<String, F> factories, boolean caching) {
+            super();
+            this.factories = Collections.unmodifiableMap(factories);
+            this.resolved = caching ? new ConcurrentHashMap<>() : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        F resolve(String type) {
+            if (resolved == null || type == null) {
+                return lookup(type);
+            }
+            Object factory = resolved.get(type);
+            if (factory == null) {
+                factory = lookup(type);
+                if (factory == null) {
+                    factory = MISSED;
+                }
+                if (resolved.size() < MAX_CACHED) {
+                    resolved.put(type, factory);
+                }
+            }
+            return factory == MISSED ? null : (F) factory;
+        }
+
+        private F lookup(String type) {
+            F factory = factories.get(type);
+            if (factory == null) {
+                factory = factories.get(ANY);
+            }
+            return factory;
+        }
+    }
+
+}
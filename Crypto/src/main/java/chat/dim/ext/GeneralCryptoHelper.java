@@ -25,8 +25,6 @@
  */
 package chat.dim.ext;
 
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
 
 import chat.dim.protocol.DecryptKey;
@@ -44,22 +42,22 @@ public interface GeneralCryptoHelper /*extends SymmetricKey.Helper, PrivateKey.H
 
     /**
      *  Compare asymmetric keys
+     *  <p>
+     *      (results are memoized, see KeyMatcher)
+     *  </p>
      */
     static boolean matchAsymmetricKeys(SignKey sKey, VerifyKey pKey) {
-        // verify with signature
-        byte[] signature = sKey.sign(PROMISE);
-        return pKey.verify(PROMISE, signature);
+        return KeyMatcher.matchAsymmetricKeys(sKey, pKey);
     }
 
     /**
      *  Compare symmetric keys
+     *  <p>
+     *      (results are memoized, see KeyMatcher)
+     *  </p>
      */
     static boolean matchSymmetricKeys(EncryptKey pKey, DecryptKey sKey) {
-        // check by encryption
-        Map<String, Object> params = new HashMap<>();
-        byte[] ciphertext = pKey.encrypt(PROMISE, params);
-        byte[] plaintext = sKey.decrypt(ciphertext, params);
-        return Arrays.equals(plaintext, PROMISE);
+        return KeyMatcher.matchSymmetricKeys(pKey, sKey);
     }
 
     //
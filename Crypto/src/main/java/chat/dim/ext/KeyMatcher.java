@@ -0,0 +1,187 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.ext;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import chat.dim.protocol.CryptographyKey;
+import chat.dim.protocol.DecryptKey;
+import chat.dim.protocol.EncryptKey;
+import chat.dim.protocol.PrivateKey;
+import chat.dim.protocol.PublicKey;
+import chat.dim.protocol.SignKey;
+import chat.dim.protocol.TransportableData;
+import chat.dim.protocol.VerifyKey;
+import chat.dim.type.BoundedCache;
+
+/**
+ *  Key Pair Matching
+ *  <p>
+ *      Checks in order: same object, cached result,
+ *      same key data (derived public key for private key),
+ *      and finally sign/verify or encrypt/decrypt with PROMISE.
+ *  </p>
+ *
+ *  <pre>
+ *  Results are cached by identities of the key objects (weakly referenced),
+ *  so no key material is kept by the cache, and reusing key objects
+ *  (e.g. with CachedKeyHelper) makes the cache effective.
+ *  </pre>
+ */
+public final class KeyMatcher {
+    private KeyMatcher() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    private static final BoundedCache<KeyPair, Boolean> results = new BoundedCache<>(4096);
+
+    public static BoundedCache<?, Boolean> getCache() {
+        return results;
+    }
+
+    /**
+     *  Compare asymmetric keys
+     */
+    public static boolean matchAsymmetricKeys(SignKey sKey, VerifyKey pKey) {
+        if ((Object) sKey == pKey) {
+            return true;
+        }
+        KeyPair pair = new KeyPair(sKey, pKey);
+        Boolean result = results.get(pair);
+        if (result == null) {
+            result = sameData(derivePublicKey(sKey), pKey) || verifyAsymmetricKeys(sKey, pKey);
+            results.put(pair, result);
+        }
+        return result;
+    }
+
+    /**
+     *  Compare symmetric keys
+     */
+    public static boolean matchSymmetricKeys(EncryptKey pKey, DecryptKey sKey) {
+        if ((Object) pKey == sKey) {
+            return true;
+        }
+        KeyPair pair = new KeyPair(pKey, sKey);
+        Boolean result = results.get(pair);
+        if (result == null) {
+            result = sameData(pKey, sKey) || verifySymmetricKeys(pKey, sKey);
+            results.put(pair, result);
+        }
+        return result;
+    }
+
+    //
+    //  Full checking
+    //
+
+    /**
+     *  Verify with signature
+     */
+    public static boolean verifyAsymmetricKeys(SignKey sKey, VerifyKey pKey) {
+        byte[] signature = sKey.sign(GeneralCryptoHelper.PROMISE);
+        return pKey.verify(GeneralCryptoHelper.PROMISE, signature);
+    }
+
+    /**
+     *  Check by encryption
+     */
+    public static boolean verifySymmetricKeys(EncryptKey pKey, DecryptKey sKey) {
+        Map<String, Object> params = new HashMap<>();
+        byte[] ciphertext = pKey.encrypt(GeneralCryptoHelper.PROMISE, params);
+        byte[] plaintext = sKey.decrypt(ciphertext, params);
+        return Arrays.equals(plaintext, GeneralCryptoHelper.PROMISE);
+    }
+
+    //
+    //  Structural checking
+    //
+
+    private static PublicKey derivePublicKey(SignKey sKey) {
+        if (sKey instanceof PrivateKey) {
+            return ((PrivateKey) sKey).getPublicKey();
+        }
+        return null;
+    }
+
+    // same algorithm & key data
+    private static boolean sameData(CryptographyKey key1, CryptographyKey key2) {
+        if (key1 == null || key2 == null) {
+            return false;
+        }
+        String algorithm = key1.getAlgorithm();
+        if (algorithm == null || !algorithm.equals(key2.getAlgorithm())) {
+            return false;
+        }
+        TransportableData data1 = key1.getData();
+        TransportableData data2 = key2.getData();
+        if (data1 == null || data2 == null) {
+            return false;
+        }
+        byte[] bytes1 = data1.getBytes();
+        return bytes1 != null && bytes1.length > 0 && Arrays.equals(bytes1, data2.getBytes());
+    }
+
+    /**
+     *  Identities of two keys
+     */
+    private static final class KeyPair {
+
+        private final WeakReference<Object> first;
+        private final WeakReference<Object> second;
+        private final int hash;
+
+        KeyPair(Object key1, Object key2) {
+            super();
+            first = new WeakReference<>(key1);
+            second = new WeakReference<>(key2);
+            hash = System.identityHashCode(key1) * 31 + System.identityHashCode(key2);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            } else if (other instanceof KeyPair) {
+                KeyPair that = (KeyPair) other;
+                Object key1 = first.get();
+                Object key2 = second.get();
+                return hash == that.hash && key1 != null && key2 != null
+                        && key1 == that.first.get() && key2 == that.second.get();
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
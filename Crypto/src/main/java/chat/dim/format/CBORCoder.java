@@ -0,0 +1,83 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.format;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ *  CBOR Coder
+ *  <p>
+ *      Built-in binary object coder for CBOR (RFC 8949)
+ *  </p>
+ */
+public class CBORCoder implements StreamCoder<Object> {
+
+    @Override
+    public byte[] encode(Object object) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try {
+            new CBORWriter(out).write(object);
+        } catch (IOException e) {
+            // ByteArrayOutputStream will not throw
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public void encode(Object object, ByteBuffer buffer) {
+        buffer.put(encode(object));
+    }
+
+    @Override
+    public void encode(Object object, OutputStream out) throws IOException {
+        new CBORWriter(out).write(object);
+    }
+
+    @Override
+    public Object decode(byte[] data, int offset, int length) {
+        return decode(ByteBuffer.wrap(data, offset, length));
+    }
+
+    @Override
+    public Object decode(ByteBuffer buffer) {
+        return new CBORReader(buffer).read();
+    }
+
+    @Override
+    public Object decode(InputStream in) throws IOException {
+        return decode(JSON.readAll(in));
+    }
+
+    public Object decode(byte[] data) {
+        return decode(ByteBuffer.wrap(data));
+    }
+
+}
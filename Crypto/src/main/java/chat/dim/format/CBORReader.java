@@ -0,0 +1,255 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.format;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *  CBOR Reader
+ *  <p>
+ *      Decode CBOR (RFC 8949) to Map/List/String/Number/Boolean/byte[],
+ *      only definite lengths are supported.
+ *      Bignums (tag 2/3) are decoded to BigInteger,
+ *      and decimal fractions (tag 4) to BigDecimal.
+ *  </p>
+ */
+public class CBORReader {
+
+    // max nesting levels
+    private final int maxDepth;
+
+    private final ByteBuffer buffer;
+
+    public CBORReader(ByteBuffer buffer, int maxDepth) {
+        super();
+        this.buffer = buffer;
+        this.maxDepth = maxDepth;
+    }
+
+    public CBORReader(ByteBuffer buffer) {
+        this(buffer, 512);
+    }
+
+    /**
+     *  Read next data item
+     *
+     * @return Map, List, String, Number, Boolean, byte[] or null
+     *
+     * @throws IllegalArgumentException on data error
+     */
+    public Object read() {
+        try {
+            return readValue(0);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("CBOR data not enough", e);
+        }
+    }
+
+    protected Object readValue(int depth) {
+        int initial = buffer.get() & 0xFF;
+        int major = initial >>> 5;
+        int info = initial & 0x1F;
+        switch (major) {
+            case CBORWriter.UNSIGNED:
+                return getInteger(readArgument(info), false);
+            case CBORWriter.NEGATIVE:
+                return getInteger(readArgument(info), true);
+            case CBORWriter.BYTES:
+                return readBytes(readLength(info));
+            case CBORWriter.TEXT:
+                return readText(readLength(info));
+            case CBORWriter.ARRAY:
+                return readList(readLength(info), depth);
+            case CBORWriter.MAP:
+                return readMap(readLength(info), depth);
+            case CBORWriter.TAG:
+                return readTagged(readArgument(info), depth);
+            default:
+                return readSimple(initial, info);
+        }
+    }
+
+    protected List<Object> readList(int count, int depth) {
+        checkDepth(depth);
+        // each item takes 1 byte at least
+        List<Object> array = new ArrayList<>(Math.min(count, buffer.remaining()));
+        for (int i = 0; i < count; ++i) {
+            array.add(readValue(depth + 1));
+        }
+        return array;
+    }
+
+    protected Map<String, Object> readMap(int count, int depth) {
+        checkDepth(depth);
+        // each pair takes 2 bytes at least
+        int capacity = Math.min(count, buffer.remaining() / 2);
+        Map<String, Object> dict = new HashMap<>(capacity < 3 ? capacity + 1 : capacity * 4 / 3 + 1);
+        Object key;
+        for (int i = 0; i < count; ++i) {
+            key = readValue(depth + 1);
+            if (!(key instanceof String)) {
+                throw new IllegalArgumentException("CBOR map key error: " + key);
+            }
+            dict.put((String) key, readValue(depth + 1));
+        }
+        return dict;
+    }
+
+    protected Object readTagged(long tag, int depth) {
+        // tags can be nested too
+        checkDepth(depth);
+        Object value = readValue(depth + 1);
+        if (tag == CBORWriter.TAG_BASE64 && value instanceof byte[]) {
+            return java.util.Base64.getEncoder().encodeToString((byte[]) value);
+        } else if (tag == CBORWriter.TAG_POSITIVE_BIGNUM && value instanceof byte[]) {
+            return new BigInteger(1, (byte[]) value);
+        } else if (tag == CBORWriter.TAG_NEGATIVE_BIGNUM && value instanceof byte[]) {
+            // -1 - n
+            return new BigInteger(1, (byte[]) value).negate().subtract(BigInteger.ONE);
+        } else if (tag == CBORWriter.TAG_DECIMAL && value instanceof List) {
+            return getDecimal((List<?>) value);
+        }
+        // unknown tag, ignore it
+        return value;
+    }
+
+    // [exponent, mantissa]
+    private static BigDecimal getDecimal(List<?> pair) {
+        Object exponent = pair.size() == 2 ? pair.get(0) : null;
+        Object mantissa = pair.size() == 2 ? pair.get(1) : null;
+        if (!(exponent instanceof Integer) || !(mantissa instanceof Number)) {
+            throw new IllegalArgumentException("CBOR decimal fraction error: " + pair);
+        }
+        BigInteger unscaled = mantissa instanceof BigInteger
+                ? (BigInteger) mantissa : BigInteger.valueOf(((Number) mantissa).longValue());
+        return new BigDecimal(unscaled, -(Integer) exponent);
+    }
+
+    protected Object readSimple(int initial, int info) {
+        switch (initial) {
+            case CBORWriter.FALSE:
+                return false;
+            case CBORWriter.TRUE:
+                return true;
+            case CBORWriter.NULL:
+            case CBORWriter.UNDEFINED:
+                return null;
+            case CBORWriter.HALF_FLOAT:
+                return halfToFloat(buffer.getShort() & 0xFFFF);
+            case CBORWriter.FLOAT:
+                return buffer.getFloat();
+            case CBORWriter.DOUBLE:
+                return buffer.getDouble();
+            default:
+                throw new IllegalArgumentException("CBOR simple value not supported: " + info);
+        }
+    }
+
+    private byte[] readBytes(int length) {
+        byte[] data = new byte[length];
+        buffer.get(data);
+        return data;
+    }
+
+    private String readText(int length) {
+        if (buffer.hasArray()) {
+            int start = buffer.arrayOffset() + buffer.position();
+            String text = new String(buffer.array(), start, length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return text;
+        }
+        return new String(readBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private long readArgument(int info) {
+        if (info < 24) {
+            return info;
+        }
+        switch (info) {
+            case 24:
+                return buffer.get() & 0xFFL;
+            case 25:
+                return buffer.getShort() & 0xFFFFL;
+            case 26:
+                return buffer.getInt() & 0xFFFFFFFFL;
+            case 27:
+                return buffer.getLong();
+            default:
+                throw new IllegalArgumentException("CBOR indefinite length not supported: " + info);
+        }
+    }
+
+    private int readLength(int info) {
+        long length = readArgument(info);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("CBOR length error: " + length);
+        }
+        return (int) length;
+    }
+
+    private void checkDepth(int depth) {
+        if (depth >= maxDepth) {
+            throw new IllegalArgumentException("too many nesting levels: " + depth);
+        }
+    }
+
+    private static Number getInteger(long value, boolean negative) {
+        if (value < 0) {
+            // out of range for long
+            BigInteger big = new BigInteger(Long.toUnsignedString(value));
+            return negative ? big.negate().subtract(BigInteger.ONE) : big;
+        } else if (negative) {
+            value = -1 - value;
+        }
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+        return value;
+    }
+
+    private static float halfToFloat(int half) {
+        int exp = (half >>> 10) & 0x1F;
+        int mant = half & 0x3FF;
+        float value;
+        if (exp == 0) {
+            value = mant * 5.9604645e-8f;  // 2^-24
+        } else if (exp == 0x1F) {
+            value = mant == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+        } else {
+            value = Float.intBitsToFloat(((exp + 112) << 23) | (mant << 13));
+        }
+        return (half & 0x8000) == 0 ? value : -value;
+    }
+
+}
@@ -0,0 +1,241 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.format;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+import chat.dim.protocol.TransportableData;
+
+/**
+ *  CBOR Writer
+ *  <p>
+ *      Encode Mapper/Map/List/Stringer directly to CBOR (RFC 8949),
+ *      binary data (byte[]) will be stored as byte string natively.
+ *  </p>
+ *
+ *  <pre>
+ *  TED with encoding 'base64' will be stored as byte string with tag 22
+ *  (expected conversion to base64), and decoded back to base64 string.
+ *  BigInteger out of 64-bit range will be stored as bignum (tag 2/3),
+ *  and BigDecimal as decimal fraction (tag 4), without losing precision.
+ *  </pre>
+ */
+public class CBORWriter extends ObjectWriter {
+
+    // major types
+    static final int UNSIGNED = 0;
+    static final int NEGATIVE = 1;
+    static final int BYTES    = 2;
+    static final int TEXT     = 3;
+    static final int ARRAY    = 4;
+    static final int MAP      = 5;
+    static final int TAG      = 6;
+
+    // simple values
+    static final int FALSE      = 0xF4;
+    static final int TRUE       = 0xF5;
+    static final int NULL       = 0xF6;
+    static final int UNDEFINED  = 0xF7;
+    static final int HALF_FLOAT = 0xF9;
+    static final int FLOAT      = 0xFA;
+    static final int DOUBLE     = 0xFB;
+
+    // tags: bignums, decimal fraction
+    static final int TAG_POSITIVE_BIGNUM = 2;
+    static final int TAG_NEGATIVE_BIGNUM = 3;
+    static final int TAG_DECIMAL         = 4;
+    // tag: expected conversion to base64
+    static final int TAG_BASE64 = 22;
+
+    // 2^64
+    private static final BigInteger UINT64_LIMIT = BigInteger.ONE.shiftLeft(64);
+
+    private final OutputStream out;
+    private final byte[] head = new byte[9];
+
+    public CBORWriter(OutputStream out) {
+        super();
+        this.out = out;
+    }
+
+    @Override
+    protected void writeValue(Object value, int depth) throws IOException {
+        if (value instanceof TransportableData) {
+            TransportableData ted = (TransportableData) value;
+            String str = ted.toString();
+            if ("base64".equals(ted.getEncoding()) && !str.startsWith("data:")) {
+                writeHead(TAG, TAG_BASE64);
+                writeBytes(ted.getBytes());
+                return;
+            }
+        }
+        super.writeValue(value, depth);
+    }
+
+    @Override
+    protected void writeOther(Object value) throws IOException {
+        if (value instanceof byte[]) {
+            writeBytes((byte[]) value);
+        } else {
+            super.writeOther(value);
+        }
+    }
+
+    protected void writeBytes(byte[] data) throws IOException {
+        writeHead(BYTES, data.length);
+        out.write(data);
+    }
+
+    @Override
+    protected void writeNull() throws IOException {
+        out.write(NULL);
+    }
+
+    @Override
+    protected void writeBoolean(boolean value) throws IOException {
+        out.write(value ? TRUE : FALSE);
+    }
+
+    @Override
+    protected void writeNumber(Number value) throws IOException {
+        if (value instanceof Integer || value instanceof Long ||
+                value instanceof Short || value instanceof Byte) {
+            long i = value.longValue();
+            if (i < 0) {
+                writeHead(NEGATIVE, -1 - i);
+            } else {
+                writeHead(UNSIGNED, i);
+            }
+        } else if (value instanceof Float) {
+            writeFixed(FLOAT, Float.floatToIntBits((Float) value), 4);
+        } else if (value instanceof Double) {
+            writeFixed(DOUBLE, Double.doubleToLongBits((Double) value), 8);
+        } else if (value instanceof BigInteger) {
+            writeBigInteger((BigInteger) value);
+        } else if (value instanceof BigDecimal) {
+            // decimal fraction: [exponent, mantissa]
+            BigDecimal decimal = (BigDecimal) value;
+            writeHead(TAG, TAG_DECIMAL);
+            writeHead(ARRAY, 2);
+            writeNumber(-decimal.scale());
+            writeBigInteger(decimal.unscaledValue());
+        } else {
+            // AtomicLong, DoubleAdder, ...
+            writeFixed(DOUBLE, Double.doubleToLongBits(value.doubleValue()), 8);
+        }
+    }
+
+    protected void writeBigInteger(BigInteger value) throws IOException {
+        if (value.bitLength() < 64) {
+            writeNumber(value.longValue());
+            return;
+        }
+        boolean negative = value.signum() < 0;
+        // negative integer n is encoded as -1 - n
+        BigInteger argument = negative ? value.negate().subtract(BigInteger.ONE) : value;
+        if (argument.compareTo(UINT64_LIMIT) < 0) {
+            // unsigned 64-bit argument
+            writeFixed(((negative ? NEGATIVE : UNSIGNED) << 5) | 27, argument.longValue(), 8);
+            return;
+        }
+        byte[] data = argument.toByteArray();
+        int offset = data[0] == 0 ? 1 : 0;  // sign byte
+        writeHead(TAG, negative ? TAG_NEGATIVE_BIGNUM : TAG_POSITIVE_BIGNUM);
+        writeHead(BYTES, data.length - offset);
+        out.write(data, offset, data.length - offset);
+    }
+
+    @Override
+    protected void writeString(String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeHead(TEXT, utf8.length);
+        out.write(utf8);
+    }
+
+    @Override
+    protected void beginMap(int size) throws IOException {
+        writeHead(MAP, size);
+    }
+
+    @Override
+    protected void writeKey(String key, boolean first) throws IOException {
+        writeString(key);
+    }
+
+    @Override
+    protected void endMap() {
+        // definite length, no break
+    }
+
+    @Override
+    protected void beginList(int size) throws IOException {
+        writeHead(ARRAY, size);
+    }
+
+    @Override
+    protected void writeElement(boolean first) {
+        // no separator
+    }
+
+    @Override
+    protected void endList() {
+        // definite length, no break
+    }
+
+    /**
+     *  Write initial byte with argument in shortest form
+     */
+    private void writeHead(int major, long value) throws IOException {
+        int type = major << 5;
+        if (value < 24) {
+            out.write(type | (int) value);
+        } else if (value < 0x100) {
+            head[0] = (byte) (type | 24);
+            head[1] = (byte) value;
+            out.write(head, 0, 2);
+        } else if (value < 0x10000) {
+            writeFixed(type | 25, value, 2);
+        } else if (value < 0x100000000L) {
+            writeFixed(type | 26, value, 4);
+        } else {
+            writeFixed(type | 27, value, 8);
+        }
+    }
+
+    private void writeFixed(int initial, long bits, int size) throws IOException {
+        head[0] = (byte) initial;
+        for (int i = size; i > 0; --i) {
+            head[i] = (byte) bits;
+            bits >>>= 8;
+        }
+        out.write(head, 0, size + 1);
+    }
+
+}
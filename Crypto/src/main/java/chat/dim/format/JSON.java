@@ -25,6 +25,12 @@
  */
 package chat.dim.format;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
 public final class JSON {
     private JSON() {
         throw new AssertionError("Utility class cannot be instantiated");
@@ -38,6 +44,94 @@ public final class JSON {
         return coder.decode(json);
     }
 
+    //
+    //  Binary (UTF-8)
+    //
+
+    public static byte[] encodeBytes(Object container) {
+        StreamCoder<Object> sc = streamCoder;
+        if (sc != null) {
+            return sc.encode(container);
+        }
+        return UTF8.encode(coder.encode(container));
+    }
+
+    /**
+     *  Encode into the buffer
+     *
+     * @throws java.nio.BufferOverflowException if not enough space
+     */
+    public static void encode(Object container, ByteBuffer buffer) {
+        StreamCoder<Object> sc = streamCoder;
+        if (sc != null) {
+            sc.encode(container, buffer);
+        } else {
+            buffer.put(encodeBytes(container));
+        }
+    }
+
+    public static void encode(Object container, OutputStream out) throws IOException {
+        StreamCoder<Object> sc = streamCoder;
+        if (sc != null) {
+            sc.encode(container, out);
+        } else {
+            out.write(encodeBytes(container));
+        }
+    }
+
+    public static Object decode(byte[] utf8) {
+        return decode(utf8, 0, utf8.length);
+    }
+
+    public static Object decode(byte[] utf8, int offset, int length) {
+        StreamCoder<Object> sc = streamCoder;
+        if (sc != null) {
+            return sc.decode(utf8, offset, length);
+        }
+        return coder.decode(UTF8.decode(utf8, offset, length));
+    }
+
+    public static Object decode(ByteBuffer utf8) {
+        StreamCoder<Object> sc = streamCoder;
+        if (sc != null) {
+            return sc.decode(utf8);
+        }
+        return coder.decode(UTF8.decode(utf8));
+    }
+
+    public static Object decode(InputStream in) throws IOException {
+        StreamCoder<Object> sc = streamCoder;
+        if (sc != null) {
+            return sc.decode(in);
+        }
+        return coder.decode(UTF8.decode(readAll(in)));
+    }
+
+    static byte[] copy(byte[] data, int offset, int length) {
+        if (offset == 0 && length == data.length) {
+            return data;
+        }
+        byte[] part = new byte[length];
+        System.arraycopy(data, offset, part, 0, length);
+        return part;
+    }
+
+    static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        byte[] buffer = new byte[4096];
+        int len;
+        while ((len = in.read(buffer)) != -1) {
+            out.write(buffer, 0, len);
+        }
+        return out.toByteArray();
+    }
+
     // default coder
     public static ObjectCoder<Object> coder = null;
+
+    /**
+     *  Streaming coder, which reads/writes UTF-8 data directly;
+     *  if not set, 'coder' will be used with 'UTF8' conversion.
+     */
+    public static StreamCoder<Object> streamCoder = null;
 }
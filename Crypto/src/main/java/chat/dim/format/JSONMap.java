@@ -25,6 +25,7 @@
  */
 package chat.dim.format;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 public final class JSONMap {
@@ -40,8 +41,48 @@ public final class JSONMap {
         return coder.decode(json);
     }
 
-    // default coder
-    public static ObjectCoder<Map<String, Object>> coder = new ObjectCoder<Map<String, Object>>() {
+    //
+    //  Binary (UTF-8)
+    //
+
+    public static byte[] encodeBytes(Map<String, Object> dictionary) {
+        ObjectCoder<Map<String, Object>> oc = coder;
+        if (oc == DEFAULT) {
+            // streaming
+            return JSON.encodeBytes(dictionary);
+        }
+        return UTF8.encode(oc.encode(dictionary));
+    }
+
+    public static Map<String, Object> decode(byte[] utf8) {
+        ObjectCoder<Map<String, Object>> oc = coder;
+        if (oc == DEFAULT) {
+            // streaming
+            return getMap(JSON.decode(utf8));
+        }
+        return oc.decode(UTF8.decode(utf8));
+    }
+
+    public static Map<String, Object> decode(ByteBuffer utf8) {
+        ObjectCoder<Map<String, Object>> oc = coder;
+        if (oc == DEFAULT) {
+            // streaming
+            return getMap(JSON.decode(utf8));
+        }
+        return oc.decode(UTF8.decode(utf8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getMap(Object dict) {
+        if (dict instanceof Map) {
+            return (Map<String, Object>) dict;
+        } else {
+            return null;
+        }
+    }
+
+    // built-in coder with JSON, binary data goes through 'JSON' directly
+    private static final ObjectCoder<Map<String, Object>> DEFAULT = new ObjectCoder<Map<String, Object>>() {
 
         @Override
         public String encode(Map<String, Object> dict) {
@@ -59,4 +100,7 @@ public final class JSONMap {
             }
         }
     };
+
+    // default coder
+    public static ObjectCoder<Map<String, Object>> coder = DEFAULT;
 }
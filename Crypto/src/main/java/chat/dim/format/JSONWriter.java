@@ -0,0 +1,186 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.format;
+
+import java.io.IOException;
+
+/**
+ *  JSON Writer
+ *  <p>
+ *      Encode Mapper/Map/List/Stringer directly to JSON text,
+ *      without building an unwrapped copy of the object first.
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  StringBuilder sb = new StringBuilder();
+ *  new JSONWriter(sb).write(msg);
+ *  </pre></blockquote>
+ */
+public class JSONWriter extends ObjectWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // line/paragraph separators, escaped for JavaScript
+    private static final char LS = 0x2028;
+    private static final char PS = 0x2029;
+
+    private final Appendable out;
+
+    public JSONWriter(Appendable out) {
+        super();
+        this.out = out;
+    }
+
+    /**
+     *  Encode object to JSON string
+     *
+     * @param object
+     *        Map, List, or wrappers
+     *
+     * @return JSON string
+     */
+    public static String encode(Object object) {
+        StringBuilder sb = new StringBuilder(256);
+        try {
+            new JSONWriter(sb).write(object);
+        } catch (IOException e) {
+            // StringBuilder will not throw
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    protected void writeNull() throws IOException {
+        out.append("null");
+    }
+
+    @Override
+    protected void writeBoolean(boolean value) throws IOException {
+        out.append(value ? "true" : "false");
+    }
+
+    @Override
+    protected void writeNumber(Number value) throws IOException {
+        if (value instanceof Double || value instanceof Float) {
+            double d = value.doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                // not supported by JSON
+                out.append("null");
+                return;
+            }
+        }
+        out.append(value.toString());
+    }
+
+    @Override
+    protected void writeString(String value) throws IOException {
+        out.append('"');
+        int len = value.length();
+        int start = 0;
+        char ch;
+        for (int i = 0; i < len; ++i) {
+            ch = value.charAt(i);
+            if (ch >= 0x20 && ch != '"' && ch != '\\' && ch != LS && ch != PS) {
+                // no need to escape
+                continue;
+            }
+            if (start < i) {
+                out.append(value, start, i);
+            }
+            start = i + 1;
+            switch (ch) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                case '\b':
+                    out.append("\\b");
+                    break;
+                case '\f':
+                    out.append("\\f");
+                    break;
+                default:
+                    out.append("\\u")
+                            .append(HEX[(ch >> 12) & 0x0F]).append(HEX[(ch >> 8) & 0x0F])
+                            .append(HEX[(ch >> 4) & 0x0F]).append(HEX[ch & 0x0F]);
+                    break;
+            }
+        }
+        if (start < len) {
+            out.append(value, start, len);
+        }
+        out.append('"');
+    }
+
+    @Override
+    protected void beginMap(int size) throws IOException {
+        out.append('{');
+    }
+
+    @Override
+    protected void writeKey(String key, boolean first) throws IOException {
+        if (!first) {
+            out.append(',');
+        }
+        writeString(key);
+        out.append(':');
+    }
+
+    @Override
+    protected void endMap() throws IOException {
+        out.append('}');
+    }
+
+    @Override
+    protected void beginList(int size) throws IOException {
+        out.append('[');
+    }
+
+    @Override
+    protected void writeElement(boolean first) throws IOException {
+        if (!first) {
+            out.append(',');
+        }
+    }
+
+    @Override
+    protected void endList() throws IOException {
+        out.append(']');
+    }
+
+}
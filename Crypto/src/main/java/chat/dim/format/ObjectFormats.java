@@ -0,0 +1,125 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.format;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *  Serialization Formats
+ *  <p>
+ *      Named object coders, for choosing the format of each link:
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  // handshake: offer local formats, receive remote formats
+ *  String name = ObjectFormats.negotiate(new String[]{"cbor", "json"}, remoteFormats);
+ *  StreamCoder&lt;Object&gt; coder = ObjectFormats.getCoder(name);
+ *  </pre></blockquote>
+ */
+public final class ObjectFormats {
+    private ObjectFormats() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    public static final String JSON_FORMAT = "json";  // default
+    public static final String CBOR_FORMAT = "cbor";
+
+    private static final Map<String, StreamCoder<Object>> coders = new ConcurrentHashMap<>();
+
+    public static void setCoder(String name, StreamCoder<Object> coder) {
+        if (coder == null) {
+            coders.remove(name);
+        } else {
+            coders.put(name, coder);
+        }
+    }
+
+    public static StreamCoder<Object> getCoder(String name) {
+        return coders.get(name);
+    }
+
+    /**
+     *  Choose the first local format which is supported by the remote peer
+     *
+     * @param local  - local format names, in order of preference
+     * @param remote - format names supported by the remote peer
+     * @return format name, "json" as default
+     */
+    public static String negotiate(String[] local, Iterable<String> remote) {
+        for (String name : local) {
+            if (!coders.containsKey(name)) {
+                continue;
+            }
+            for (String item : remote) {
+                if (name.equalsIgnoreCase(item)) {
+                    return name;
+                }
+            }
+        }
+        return JSON_FORMAT;
+    }
+
+    static {
+        setCoder(JSON_FORMAT, new StreamCoder<Object>() {
+
+            @Override
+            public byte[] encode(Object object) {
+                return JSON.encodeBytes(object);
+            }
+
+            @Override
+            public void encode(Object object, ByteBuffer buffer) {
+                JSON.encode(object, buffer);
+            }
+
+            @Override
+            public void encode(Object object, OutputStream out) throws IOException {
+                JSON.encode(object, out);
+            }
+
+            @Override
+            public Object decode(byte[] data, int offset, int length) {
+                return JSON.decode(data, offset, length);
+            }
+
+            @Override
+            public Object decode(ByteBuffer buffer) {
+                return JSON.decode(buffer);
+            }
+
+            @Override
+            public Object decode(InputStream in) throws IOException {
+                return JSON.decode(in);
+            }
+        });
+        setCoder(CBOR_FORMAT, new CBORCoder());
+    }
+}
@@ -0,0 +1,167 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.format;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import chat.dim.type.Mapper;
+import chat.dim.type.Stringer;
+
+/**
+ *  Object Writer
+ *  <p>
+ *      Walk through Mapper/Map/List/Stringer and primitive values,
+ *      write them out in one pass, without unwrapping them to a new tree.
+ *  </p>
+ *
+ *  1. Mapper, Map  - write as map (with string keys);
+ *  2. List         - write as array;
+ *  3. Stringer     - write as string;
+ *  4. String, Number, Boolean, null;
+ *  5. others       - not supported by default (IllegalArgumentException),
+ *                    subclasses can write more types (e.g.: byte[] in CBOR).
+ */
+public abstract class ObjectWriter {
+
+    // max nesting levels
+    private final int maxDepth;
+
+    protected ObjectWriter(int maxDepth) {
+        super();
+        this.maxDepth = maxDepth;
+    }
+
+    protected ObjectWriter() {
+        this(512);
+    }
+
+    /**
+     *  Write object
+     *
+     * @param object
+     *        Map, List, String, Number, Boolean, or wrappers
+     *
+     * @throws IOException on output error
+     * @throws IllegalArgumentException on unsupported type
+     */
+    public void write(Object object) throws IOException {
+        writeValue(object, 0);
+    }
+
+    protected void writeValue(Object value, int depth) throws IOException {
+        if (value == null) {
+            writeNull();
+        } else if (value instanceof String) {
+            writeString((String) value);
+        } else if (value instanceof Mapper) {
+            writeMap(((Mapper) value).toMap(), depth);
+        } else if (value instanceof Map) {
+            writeMap((Map<?, ?>) value, depth);
+        } else if (value instanceof List) {
+            writeList((List<?>) value, depth);
+        } else if (value instanceof Stringer) {
+            writeString(value.toString());
+        } else if (value instanceof Number) {
+            writeNumber((Number) value);
+        } else if (value instanceof Boolean) {
+            writeBoolean((Boolean) value);
+        } else {
+            writeOther(value);
+        }
+    }
+
+    protected void writeMap(Map<?, ?> dict, int depth) throws IOException {
+        checkDepth(depth);
+        beginMap(dict.size());
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : dict.entrySet()) {
+            writeKey(getKey(entry.getKey()), first);
+            writeValue(entry.getValue(), depth + 1);
+            first = false;
+        }
+        endMap();
+    }
+
+    protected void writeList(List<?> array, int depth) throws IOException {
+        checkDepth(depth);
+        beginList(array.size());
+        boolean first = true;
+        for (Object item : array) {
+            writeElement(first);
+            writeValue(item, depth + 1);
+            first = false;
+        }
+        endList();
+    }
+
+    private void checkDepth(int depth) {
+        if (depth >= maxDepth) {
+            throw new IllegalArgumentException("too many nesting levels: " + depth);
+        }
+    }
+
+    private static String getKey(Object key) {
+        if (key instanceof String) {
+            // exactly
+            return (String) key;
+        }
+        assert key instanceof Stringer : "key error: " + key;
+        return String.valueOf(key);
+    }
+
+    /**
+     *  Write unknown object
+     *
+     * @throws IllegalArgumentException for unsupported type
+     */
+    protected void writeOther(Object value) throws IOException {
+        // toString() of arrays and most objects cannot be decoded back
+        throw new IllegalArgumentException("unsupported type: " + value.getClass().getName());
+    }
+
+    //
+    //  Format
+    //
+
+    protected abstract void writeNull() throws IOException;
+
+    protected abstract void writeBoolean(boolean value) throws IOException;
+
+    protected abstract void writeNumber(Number value) throws IOException;
+
+    protected abstract void writeString(String value) throws IOException;
+
+    protected abstract void beginMap(int size) throws IOException;
+    protected abstract void writeKey(String key, boolean first) throws IOException;
+    protected abstract void endMap() throws IOException;
+
+    protected abstract void beginList(int size) throws IOException;
+    protected abstract void writeElement(boolean first) throws IOException;
+    protected abstract void endList() throws IOException;
+
+}
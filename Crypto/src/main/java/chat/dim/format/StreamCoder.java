@@ -0,0 +1,118 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.format;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ *  Stream Coder
+ *  <p>
+ *      JsON, CBOR, ...
+ *  </p>
+ *
+ *  1. encode object to binary data (UTF-8 for text formats) directly;
+ *  2. decode binary data to object directly,
+ *     without converting to/from String.
+ */
+public interface StreamCoder<T> {
+
+    /**
+     *  Encode Map/List object to binary data
+     *
+     * @param object
+     *        Map or List
+     *
+     * @return serialized data
+     */
+    byte[] encode(T object);
+
+    /**
+     *  Encode Map/List object into the buffer
+     *
+     * @param object
+     *        Map or List
+     *
+     * @param buffer
+     *        output buffer, position will be moved to the end of data
+     *
+     * @throws java.nio.BufferOverflowException if not enough space
+     */
+    void encode(T object, ByteBuffer buffer);
+
+    /**
+     *  Encode Map/List object to the stream
+     *
+     * @param object
+     *        Map or List
+     *
+     * @param out
+     *        output stream
+     *
+     * @throws IOException on output error
+     */
+    void encode(T object, OutputStream out) throws IOException;
+
+    /**
+     *  Decode binary data to Map/List object
+     *
+     * @param data
+     *        serialized data
+     *
+     * @param offset
+     *        start position in data
+     *
+     * @param length
+     *        data length
+     *
+     * @return Map or List
+     */
+    T decode(byte[] data, int offset, int length);
+
+    /**
+     *  Decode remaining data in the buffer to Map/List object
+     *
+     * @param buffer
+     *        serialized data, heap or direct
+     *
+     * @return Map or List
+     */
+    T decode(ByteBuffer buffer);
+
+    /**
+     *  Decode data from the stream to Map/List object
+     *
+     * @param in
+     *        input stream
+     *
+     * @return Map or List
+     *
+     * @throws IOException on input error
+     */
+    T decode(InputStream in) throws IOException;
+}
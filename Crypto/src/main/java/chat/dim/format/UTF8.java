@@ -25,6 +25,8 @@
  */
 package chat.dim.format;
 
+import java.nio.ByteBuffer;
+
 public final class UTF8 {
     private UTF8() {
         throw new AssertionError("Utility class cannot be instantiated");
@@ -38,6 +40,33 @@ public final class UTF8 {
         return coder.decode(utf8);
     }
 
+    public static String decode(byte[] utf8, int offset, int length) {
+        StringCoder sc = coder;
+        if (sc instanceof UTF8Coder) {
+            return ((UTF8Coder) sc).decode(utf8, offset, length);
+        }
+        return sc.decode(JSON.copy(utf8, offset, length));
+    }
+
+    public static String decode(ByteBuffer utf8) {
+        StringCoder sc = coder;
+        if (sc instanceof UTF8Coder) {
+            return ((UTF8Coder) sc).decode(utf8);
+        }
+        byte[] data = new byte[utf8.remaining()];
+        utf8.get(data);
+        return sc.decode(data);
+    }
+
+    public static void encode(String string, ByteBuffer buffer) {
+        StringCoder sc = coder;
+        if (sc instanceof UTF8Coder) {
+            ((UTF8Coder) sc).encode(string, buffer);
+        } else {
+            buffer.put(sc.encode(string));
+        }
+    }
+
     // default coder
-    public static StringCoder coder = null;
+    public static StringCoder coder = new UTF8Coder();
 }
@@ -0,0 +1,114 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.format;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import chat.dim.type.ObjectPool;
+
+/**
+ *  UTF-8 Coder
+ *  <p>
+ *      Built-in string coder for UTF-8, strings and arrays are converted
+ *      by the JDK (which checks ASCII with intrinsics on newer versions);
+ *      direct buffers are decoded by pooled decoders.
+ *  </p>
+ */
+public class UTF8Coder implements StringCoder {
+
+    private static final ObjectPool<CharsetDecoder> decoders = new ObjectPool<CharsetDecoder>() {
+        @Override
+        protected CharsetDecoder create() {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+    };
+
+    //
+    //  Encode
+    //
+
+    @Override
+    public byte[] encode(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     *  Encode string into the buffer
+     *
+     * @param string - local string
+     * @param buffer - output buffer, position will be moved to the end of data
+     * @throws BufferOverflowException if not enough space, position not moved
+     */
+    public void encode(CharSequence string, ByteBuffer buffer) {
+        // JDK specific, see 'src/main/java17'
+        UTF8Writer.write(string, buffer);
+    }
+
+    //
+    //  Decode
+    //
+
+    @Override
+    public String decode(byte[] data) {
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    public String decode(byte[] data, int offset, int length) {
+        return new String(data, offset, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     *  Decode remaining data in the buffer
+     *
+     * @param buffer - UTF-8 data, heap or direct
+     * @return local string
+     */
+    public String decode(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            int start = buffer.arrayOffset() + buffer.position();
+            String string = decode(buffer.array(), start, buffer.remaining());
+            buffer.position(buffer.limit());
+            return string;
+        }
+        CharsetDecoder decoder = decoders.borrow();
+        try {
+            return decoder.decode(buffer).toString();
+        } catch (CharacterCodingException e) {
+            // should not happen with action REPLACE
+            throw new IllegalArgumentException(e);
+        } finally {
+            decoders.release(decoder);
+        }
+    }
+
+}
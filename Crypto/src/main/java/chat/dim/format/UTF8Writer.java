@@ -0,0 +1,82 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.format;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import chat.dim.type.ObjectPool;
+
+/**
+ *  Write UTF-8 into buffer (Java 8)
+ *  <p>
+ *      String.getBytes() allocates 3 bytes per char before trimming here,
+ *      so strings are encoded into the buffer by pooled encoders.
+ *  </p>
+ */
+final class UTF8Writer {
+    private UTF8Writer() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    private static final ObjectPool<CharsetEncoder> encoders = new ObjectPool<CharsetEncoder>() {
+        @Override
+        protected CharsetEncoder create() {
+            return StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+    };
+
+    /**
+     *  Throws BufferOverflowException without moving the position
+     */
+    static void write(CharSequence string, ByteBuffer buffer) {
+        int position = buffer.position();
+        CharsetEncoder encoder = encoders.borrow();
+        CoderResult result;
+        try {
+            encoder.reset();
+            result = encoder.encode(CharBuffer.wrap(string), buffer, true);
+            if (!result.isOverflow()) {
+                result = encoder.flush(buffer);
+            }
+        } finally {
+            encoders.release(encoder);
+        }
+        if (result.isOverflow()) {
+            // drop the partial bytes, same as ByteBuffer.put(byte[])
+            buffer.position(position);
+            throw new BufferOverflowException();
+        }
+    }
+
+}
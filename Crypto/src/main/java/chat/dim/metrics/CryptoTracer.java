@@ -0,0 +1,55 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.metrics;
+
+import chat.dim.protocol.CryptographyKey;
+
+/**
+ *  Crypto Operation Sink
+ *  <p>
+ *      Receives every sign/verify/encrypt/decrypt of traced keys,
+ *      it's called on the crypto thread, so keep it cheap.
+ *  </p>
+ */
+public interface CryptoTracer {
+
+    String SIGN    = "sign";
+    String VERIFY  = "verify";
+    String ENCRYPT = "encrypt";
+    String DECRYPT = "decrypt";
+
+    /**
+     *  Operation finished
+     *
+     * @param key       - original key (algorithm, key data)
+     * @param operation - SIGN, VERIFY, ENCRYPT or DECRYPT
+     * @param bytes     - input data length
+     * @param nanos     - elapsed time
+     * @param success   - false on error, or verify not passed
+     */
+    void trace(CryptographyKey key, String operation, int bytes, long nanos, boolean success);
+
+}
@@ -0,0 +1,132 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.metrics;
+
+import java.util.Map;
+
+import chat.dim.protocol.DecryptKey;
+import chat.dim.protocol.EncryptKey;
+import chat.dim.protocol.PrivateKey;
+import chat.dim.protocol.PublicKey;
+import chat.dim.protocol.SymmetricKey;
+
+/**
+ *  Crypto Tracing
+ *  <p>
+ *      Decorates key factories, so that all keys they create/parse
+ *      report sign/verify/encrypt/decrypt to the tracer;
+ *      when tracer is null, traced keys call the original keys directly.
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  PrivateKey.setFactory("RSA", CryptoTracing.wrapPrivateFactory(rsaPrivateFactory));
+ *  PublicKey.setFactory("RSA", CryptoTracing.wrapPublicFactory(rsaPublicFactory));
+ *  SymmetricKey.setFactory("AES", CryptoTracing.wrapSymmetricFactory(aesFactory));
+ *
+ *  CryptoTracing.tracer = new MetricsTracer();
+ *  </pre></blockquote>
+ */
+public final class CryptoTracing {
+    private CryptoTracing() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     *  Operation sink, null to disable
+     */
+    public static CryptoTracer tracer = null;
+
+    //
+    //  Factories
+    //
+
+    public static SymmetricKey.Factory wrapSymmetricFactory(final SymmetricKey.Factory factory) {
+        return new SymmetricKey.Factory() {
+            @Override
+            public SymmetricKey generateSymmetricKey() {
+                return wrapSymmetricKey(factory.generateSymmetricKey());
+            }
+
+            @Override
+            public SymmetricKey parseSymmetricKey(Map<String, Object> key) {
+                return wrapSymmetricKey(factory.parseSymmetricKey(key));
+            }
+        };
+    }
+
+    public static PrivateKey.Factory wrapPrivateFactory(final PrivateKey.Factory factory) {
+        return new PrivateKey.Factory() {
+            @Override
+            public PrivateKey generatePrivateKey() {
+                return wrapPrivateKey(factory.generatePrivateKey());
+            }
+
+            @Override
+            public PrivateKey parsePrivateKey(Map<String, Object> key) {
+                return wrapPrivateKey(factory.parsePrivateKey(key));
+            }
+        };
+    }
+
+    public static PublicKey.Factory wrapPublicFactory(final PublicKey.Factory factory) {
+        return new PublicKey.Factory() {
+            @Override
+            public PublicKey parsePublicKey(Map<String, Object> key) {
+                return wrapPublicKey(factory.parsePublicKey(key));
+            }
+        };
+    }
+
+    //
+    //  Keys
+    //
+
+    public static SymmetricKey wrapSymmetricKey(SymmetricKey key) {
+        if (key == null || key instanceof TracedKey) {
+            return key;
+        }
+        return new TracedSymmetricKey(key);
+    }
+
+    public static PrivateKey wrapPrivateKey(PrivateKey key) {
+        if (key == null || key instanceof TracedKey) {
+            return key;
+        } else if (key instanceof DecryptKey) {
+            return new TracedPrivateKey.Decryptable(key);
+        }
+        return new TracedPrivateKey(key);
+    }
+
+    public static PublicKey wrapPublicKey(PublicKey key) {
+        if (key == null || key instanceof TracedKey) {
+            return key;
+        } else if (key instanceof EncryptKey) {
+            return new TracedPublicKey.Encryptable(key);
+        }
+        return new TracedPublicKey(key);
+    }
+
+}
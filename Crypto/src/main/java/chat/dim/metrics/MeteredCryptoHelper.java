@@ -0,0 +1,201 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.metrics;
+
+import chat.dim.ext.PrivateKeyHelper;
+import chat.dim.ext.PublicKeyHelper;
+import chat.dim.ext.SharedCryptoExtensions;
+import chat.dim.ext.SymmetricKeyHelper;
+import chat.dim.protocol.PrivateKey;
+import chat.dim.protocol.PublicKey;
+import chat.dim.protocol.SymmetricKey;
+
+/**
+ *  Key helpers with metrics
+ *  <p>
+ *      Times generating &amp; parsing of keys,
+ *      a parse with non-empty input but no result is counted as failure.
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  // after the real helpers installed
+ *  new MeteredCryptoHelper().install();
+ *  </pre></blockquote>
+ */
+public class MeteredCryptoHelper implements SymmetricKeyHelper, PrivateKeyHelper, PublicKeyHelper {
+
+    private final SymmetricKeyHelper symmetricHelper;
+    private final PrivateKeyHelper privateHelper;
+    private final PublicKeyHelper publicHelper;
+
+    private final Metric symmetricGenerate = Metrics.getMetric("crypto.symmetric.generate");
+    private final Metric symmetricParse = Metrics.getMetric("crypto.symmetric.parse");
+    private final Metric privateGenerate = Metrics.getMetric("crypto.private.generate");
+    private final Metric privateParse = Metrics.getMetric("crypto.private.parse");
+    private final Metric publicParse = Metrics.getMetric("crypto.public.parse");
+
+    public MeteredCryptoHelper(SymmetricKeyHelper symmetricHelper,
+                               PrivateKeyHelper privateHelper, PublicKeyHelper publicHelper) {
+        super();
+        this.symmetricHelper = symmetricHelper;
+        this.privateHelper = privateHelper;
+        this.publicHelper = publicHelper;
+    }
+
+    /**
+     *  Wrap the current helpers
+     */
+    public MeteredCryptoHelper() {
+        this(SharedCryptoExtensions.symmetricHelper,
+                SharedCryptoExtensions.privateHelper, SharedCryptoExtensions.publicHelper);
+    }
+
+    /**
+     *  Set this as key helpers
+     */
+    public void install() {
+        SharedCryptoExtensions.symmetricHelper = this;
+        SharedCryptoExtensions.privateHelper = this;
+        SharedCryptoExtensions.publicHelper = this;
+    }
+
+    //
+    //  SymmetricKey
+    //
+
+    @Override
+    public void setSymmetricKeyFactory(String algorithm, SymmetricKey.Factory factory) {
+        symmetricHelper.setSymmetricKeyFactory(algorithm, factory);
+    }
+
+    @Override
+    public SymmetricKey.Factory getSymmetricKeyFactory(String algorithm) {
+        return symmetricHelper.getSymmetricKeyFactory(algorithm);
+    }
+
+    @Override
+    public SymmetricKey generateSymmetricKey(String algorithm) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            SymmetricKey key = symmetricHelper.generateSymmetricKey(algorithm);
+            ok = key != null;
+            return key;
+        } finally {
+            symmetricGenerate.record(System.nanoTime() - start, ok);
+        }
+    }
+
+    @Override
+    public SymmetricKey parseSymmetricKey(Object key) {
+        if (key == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            SymmetricKey result = symmetricHelper.parseSymmetricKey(key);
+            ok = result != null;
+            return result;
+        } finally {
+            symmetricParse.record(System.nanoTime() - start, ok);
+        }
+    }
+
+    //
+    //  PrivateKey
+    //
+
+    @Override
+    public void setPrivateKeyFactory(String algorithm, PrivateKey.Factory factory) {
+        privateHelper.setPrivateKeyFactory(algorithm, factory);
+    }
+
+    @Override
+    public PrivateKey.Factory getPrivateKeyFactory(String algorithm) {
+        return privateHelper.getPrivateKeyFactory(algorithm);
+    }
+
+    @Override
+    public PrivateKey generatePrivateKey(String algorithm) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            PrivateKey key = privateHelper.generatePrivateKey(algorithm);
+            ok = key != null;
+            return key;
+        } finally {
+            privateGenerate.record(System.nanoTime() - start, ok);
+        }
+    }
+
+    @Override
+    public PrivateKey parsePrivateKey(Object key) {
+        if (key == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            PrivateKey result = privateHelper.parsePrivateKey(key);
+            ok = result != null;
+            return result;
+        } finally {
+            privateParse.record(System.nanoTime() - start, ok);
+        }
+    }
+
+    //
+    //  PublicKey
+    //
+
+    @Override
+    public void setPublicKeyFactory(String algorithm, PublicKey.Factory factory) {
+        publicHelper.setPublicKeyFactory(algorithm, factory);
+    }
+
+    @Override
+    public PublicKey.Factory getPublicKeyFactory(String algorithm) {
+        return publicHelper.getPublicKeyFactory(algorithm);
+    }
+
+    @Override
+    public PublicKey parsePublicKey(Object key) {
+        if (key == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            PublicKey result = publicHelper.parsePublicKey(key);
+            ok = result != null;
+            return result;
+        } finally {
+            publicParse.record(System.nanoTime() - start, ok);
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.metrics;
+
+import chat.dim.digest.MessageDigester;
+
+/**
+ *  Message Digester with metric
+ *
+ *  <blockquote><pre>
+ *  SHA256.digester = new MeteredDigester("digest.sha256", SHA256.digester);
+ *  RIPEMD160.digester = new MeteredDigester("digest.ripemd160", RIPEMD160.digester);
+ *  </pre></blockquote>
+ */
+public class MeteredDigester implements MessageDigester {
+
+    private final MessageDigester digester;
+    private final Metric metric;
+
+    public MeteredDigester(String name, MessageDigester digester) {
+        super();
+        assert digester != null : "digester not set: " + name;
+        this.digester = digester;
+        this.metric = Metrics.getMetric(name);
+    }
+
+    @Override
+    public byte[] digest(byte[] data) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            byte[] hash = digester.digest(data);
+            ok = hash != null;
+            return hash;
+        } finally {
+            metric.record(System.nanoTime() - start, ok);
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.metrics;
+
+import java.net.URI;
+
+import chat.dim.ext.SharedFormatExtensions;
+import chat.dim.ext.TransportableDataHelper;
+import chat.dim.ext.TransportableFileHelper;
+import chat.dim.protocol.DecryptKey;
+import chat.dim.protocol.TransportableData;
+import chat.dim.protocol.TransportableFile;
+
+/**
+ *  TED &amp; PNF helpers with metrics
+ *
+ *  <blockquote><pre>
+ *  // after the real helpers installed
+ *  new MeteredFormatHelper().install();
+ *  </pre></blockquote>
+ */
+public class MeteredFormatHelper implements TransportableDataHelper, TransportableFileHelper {
+
+    private final TransportableDataHelper tedHelper;
+    private final TransportableFileHelper pnfHelper;
+
+    private final Metric tedParse = Metrics.getMetric("format.ted.parse");
+    private final Metric pnfParse = Metrics.getMetric("format.pnf.parse");
+
+    public MeteredFormatHelper(TransportableDataHelper tedHelper, TransportableFileHelper pnfHelper) {
+        super();
+        this.tedHelper = tedHelper;
+        this.pnfHelper = pnfHelper;
+    }
+
+    /**
+     *  Wrap the current helpers
+     */
+    public MeteredFormatHelper() {
+        this(SharedFormatExtensions.tedHelper, SharedFormatExtensions.pnfHelper);
+    }
+
+    /**
+     *  Set this as format helpers
+     */
+    public void install() {
+        SharedFormatExtensions.tedHelper = this;
+        SharedFormatExtensions.pnfHelper = this;
+    }
+
+    //
+    //  TED
+    //
+
+    @Override
+    public void setTransportableDataFactory(TransportableData.Factory factory) {
+        tedHelper.setTransportableDataFactory(factory);
+    }
+
+    @Override
+    public TransportableData.Factory getTransportableDataFactory() {
+        return tedHelper.getTransportableDataFactory();
+    }
+
+    @Override
+    public TransportableData parseTransportableData(Object ted) {
+        if (ted == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            TransportableData result = tedHelper.parseTransportableData(ted);
+            ok = result != null;
+            return result;
+        } finally {
+            tedParse.record(System.nanoTime() - start, ok);
+        }
+    }
+
+    //
+    //  PNF
+    //
+
+    @Override
+    public void setTransportableFileFactory(TransportableFile.Factory factory) {
+        pnfHelper.setTransportableFileFactory(factory);
+    }
+
+    @Override
+    public TransportableFile.Factory getTransportableFileFactory() {
+        return pnfHelper.getTransportableFileFactory();
+    }
+
+    @Override
+    public TransportableFile parseTransportableFile(Object pnf) {
+        if (pnf == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            TransportableFile result = pnfHelper.parseTransportableFile(pnf);
+            ok = result != null;
+            return result;
+        } finally {
+            pnfParse.record(System.nanoTime() - start, ok);
+        }
+    }
+
+    @Override
+    public TransportableFile createTransportableFile(TransportableData data, String filename,
+                                                     URI url, DecryptKey password) {
+        return pnfHelper.createTransportableFile(data, filename, url, password);
+    }
+
+}
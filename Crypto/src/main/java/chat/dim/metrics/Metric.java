@@ -0,0 +1,173 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *  Operation Metric
+ *  <p>
+ *      Counts calls &amp; failures, and collects latencies in a histogram
+ *      of power-of-two buckets (nanoseconds);
+ *      recording is lock-free, reading is a weakly consistent sum.
+ *  </p>
+ */
+public class Metric {
+
+    /**
+     *  Bucket[i] holds latencies in [2^i, 2^(i+1)) ns,
+     *  the last one holds all longer than 2^39 ns (about 9 minutes)
+     */
+    public static final int BUCKETS = 40;
+
+    private final String name;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder totalBytes = new LongAdder();
+    private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+    public Metric(String name) {
+        super();
+        this.name = name;
+        for (int i = 0; i < BUCKETS; ++i) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     *  Record one call
+     *
+     * @param nanos   - elapsed time
+     * @param success - false on error
+     */
+    public void record(long nanos, boolean success) {
+        count.increment();
+        if (!success) {
+            failures.increment();
+        }
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        totalNanos.add(nanos);
+        histogram[bucket(nanos)].increment();
+    }
+
+    /**
+     *  Count data size processed
+     */
+    public void addBytes(long bytes) {
+        totalBytes.add(bytes);
+    }
+
+    private static int bucket(long nanos) {
+        int index = 63 - Long.numberOfLeadingZeros(nanos);
+        return index < 0 ? 0 : Math.min(index, BUCKETS - 1);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.sum();
+    }
+
+    public long getMeanNanos() {
+        long calls = count.sum();
+        return calls == 0 ? 0 : totalNanos.sum() / calls;
+    }
+
+    /**
+     *  Get counts of latency buckets
+     *
+     * @return counts for [1, 2, 4, 8, ...) ns
+     */
+    public long[] getHistogram() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; ++i) {
+            counts[i] = histogram[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     *  Estimate latency at percentile
+     *
+     * @param percent - 0.0 ~ 100.0
+     * @return upper bound of the bucket (ns), 0 for no data
+     */
+    public long getPercentile(double percent) {
+        long[] counts = getHistogram();
+        long total = 0;
+        for (long n : counts) {
+            total += n;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percent / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] > 0) {
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public void reset() {
+        count.reset();
+        failures.reset();
+        totalNanos.reset();
+        totalBytes.reset();
+        for (LongAdder adder : histogram) {
+            adder.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "<" + getClass().getSimpleName() + " name=\"" + name + "\" count=" + getCount()
+                + " failures=" + getFailures() + " mean=" + getMeanNanos() + "ns"
+                + " p99=" + getPercentile(99) + "ns />";
+    }
+
+}
@@ -0,0 +1,98 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ *  Metrics Registry
+ *  <p>
+ *      Named metrics shared by all metered helpers,
+ *      read them with 'getMetric(name)' or 'getAll()' for reporting.
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  new MeteredCryptoHelper().install();
+ *  SHA256.digester = new MeteredDigester("digest.sha256", SHA256.digester);
+ *  ...
+ *  for (Metric metric : Metrics.getAll()) {
+ *      log(metric);
+ *  }
+ *  </pre></blockquote>
+ */
+public final class Metrics {
+    private Metrics() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    private static final ConcurrentMap<String, Metric> metrics = new ConcurrentHashMap<>();
+
+    /**
+     *  Get metric with name, create it if not exists
+     */
+    public static Metric getMetric(String name) {
+        Metric metric = metrics.get(name);
+        if (metric == null) {
+            metric = new Metric(name);
+            Metric exists = metrics.putIfAbsent(name, metric);
+            if (exists != null) {
+                metric = exists;
+            }
+        }
+        return metric;
+    }
+
+    /**
+     *  Get all metrics
+     *
+     * @return metrics sorted by name
+     */
+    public static List<Metric> getAll() {
+        List<Metric> array = new ArrayList<>(metrics.values());
+        array.sort(new Comparator<Metric>() {
+            @Override
+            public int compare(Metric m1, Metric m2) {
+                return m1.getName().compareTo(m2.getName());
+            }
+        });
+        return Collections.unmodifiableList(array);
+    }
+
+    /**
+     *  Clear counters of all metrics
+     */
+    public static void reset() {
+        for (Metric metric : metrics.values()) {
+            metric.reset();
+        }
+    }
+
+}
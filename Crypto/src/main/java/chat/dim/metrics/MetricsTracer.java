@@ -0,0 +1,85 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import chat.dim.protocol.CryptographyKey;
+
+/**
+ *  Crypto Tracer for Metrics
+ *  <p>
+ *      Records operations to metrics named "crypto.{algorithm}.{operation}",
+ *      e.g. "crypto.RSA.sign", "crypto.AES.decrypt".
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  CryptoTracing.tracer = new MetricsTracer();
+ *  </pre></blockquote>
+ */
+public class MetricsTracer implements CryptoTracer {
+
+    // algorithm => [sign, verify, encrypt, decrypt]
+    private final Map<String, Metric[]> groups = new ConcurrentHashMap<>();
+
+    @Override
+    public void trace(CryptographyKey key, String operation, int bytes, long nanos, boolean success) {
+        Metric metric = getMetric(key.getAlgorithm(), operation);
+        metric.record(nanos, success);
+        metric.addBytes(bytes);
+    }
+
+    protected Metric getMetric(String algorithm, String operation) {
+        if (algorithm == null) {
+            algorithm = "unknown";
+        }
+        Metric[] group = groups.get(algorithm);
+        if (group == null) {
+            String prefix = "crypto." + algorithm + ".";
+            group = new Metric[] {
+                    Metrics.getMetric(prefix + SIGN),
+                    Metrics.getMetric(prefix + VERIFY),
+                    Metrics.getMetric(prefix + ENCRYPT),
+                    Metrics.getMetric(prefix + DECRYPT),
+            };
+            groups.put(algorithm, group);
+        }
+        switch (operation) {
+            case SIGN:
+                return group[0];
+            case VERIFY:
+                return group[1];
+            case ENCRYPT:
+                return group[2];
+            case DECRYPT:
+                return group[3];
+            default:
+                return Metrics.getMetric("crypto." + algorithm + "." + operation);
+        }
+    }
+
+}
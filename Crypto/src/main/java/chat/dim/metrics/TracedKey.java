@@ -0,0 +1,132 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.metrics;
+
+import java.util.Map;
+
+import chat.dim.protocol.CryptographyKey;
+import chat.dim.protocol.DecryptKey;
+import chat.dim.protocol.EncryptKey;
+import chat.dim.protocol.SignKey;
+import chat.dim.protocol.TransportableData;
+import chat.dim.protocol.VerifyKey;
+import chat.dim.type.Dictionary;
+
+/**
+ *  Key Decorator
+ *  <p>
+ *      Shares the inner map of the original key,
+ *      and reports crypto operations to 'CryptoTracing.tracer'
+ *      (calls the original key directly when tracer not set).
+ *  </p>
+ */
+abstract class TracedKey extends Dictionary implements CryptographyKey {
+
+    TracedKey(CryptographyKey key) {
+        super(key.toMap());
+    }
+
+    protected abstract CryptographyKey getKey();
+
+    @Override
+    public String getAlgorithm() {
+        return getKey().getAlgorithm();
+    }
+
+    @Override
+    public TransportableData getData() {
+        return getKey().getData();
+    }
+
+    //
+    //  Operations
+    //
+
+    protected static byte[] sign(SignKey key, byte[] data) {
+        CryptoTracer tracer = CryptoTracing.tracer;
+        if (tracer == null) {
+            return key.sign(data);
+        }
+        long start = System.nanoTime();
+        byte[] signature = null;
+        try {
+            signature = key.sign(data);
+            return signature;
+        } finally {
+            tracer.trace(key, CryptoTracer.SIGN, sizeOf(data), System.nanoTime() - start, signature != null);
+        }
+    }
+
+    protected static boolean verify(VerifyKey key, byte[] data, byte[] signature) {
+        CryptoTracer tracer = CryptoTracing.tracer;
+        if (tracer == null) {
+            return key.verify(data, signature);
+        }
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            ok = key.verify(data, signature);
+            return ok;
+        } finally {
+            tracer.trace(key, CryptoTracer.VERIFY, sizeOf(data), System.nanoTime() - start, ok);
+        }
+    }
+
+    protected static byte[] encrypt(EncryptKey key, byte[] plaintext, Map<String, Object> extra) {
+        CryptoTracer tracer = CryptoTracing.tracer;
+        if (tracer == null) {
+            return key.encrypt(plaintext, extra);
+        }
+        long start = System.nanoTime();
+        byte[] ciphertext = null;
+        try {
+            ciphertext = key.encrypt(plaintext, extra);
+            return ciphertext;
+        } finally {
+            tracer.trace(key, CryptoTracer.ENCRYPT, sizeOf(plaintext), System.nanoTime() - start, ciphertext != null);
+        }
+    }
+
+    protected static byte[] decrypt(DecryptKey key, byte[] ciphertext, Map<String, Object> params) {
+        CryptoTracer tracer = CryptoTracing.tracer;
+        if (tracer == null) {
+            return key.decrypt(ciphertext, params);
+        }
+        long start = System.nanoTime();
+        byte[] plaintext = null;
+        try {
+            plaintext = key.decrypt(ciphertext, params);
+            return plaintext;
+        } finally {
+            tracer.trace(key, CryptoTracer.DECRYPT, sizeOf(ciphertext), System.nanoTime() - start, plaintext != null);
+        }
+    }
+
+    private static int sizeOf(byte[] data) {
+        return data == null ? 0 : data.length;
+    }
+
+}
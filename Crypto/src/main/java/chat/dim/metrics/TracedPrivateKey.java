@@ -0,0 +1,82 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.metrics;
+
+import java.util.Map;
+
+import chat.dim.protocol.DecryptKey;
+import chat.dim.protocol.EncryptKey;
+import chat.dim.protocol.PrivateKey;
+import chat.dim.protocol.PublicKey;
+
+class TracedPrivateKey extends TracedKey implements PrivateKey {
+
+    private final PrivateKey key;
+
+    TracedPrivateKey(PrivateKey key) {
+        super(key);
+        this.key = key;
+    }
+
+    @Override
+    protected PrivateKey getKey() {
+        return key;
+    }
+
+    @Override
+    public PublicKey getPublicKey() {
+        return CryptoTracing.wrapPublicKey(key.getPublicKey());
+    }
+
+    @Override
+    public byte[] sign(byte[] data) {
+        return sign(key, data);
+    }
+
+    /**
+     *  Private key for decryption (e.g. RSA)
+     */
+    static final class Decryptable extends TracedPrivateKey implements DecryptKey {
+
+        private final DecryptKey decryptKey;
+
+        Decryptable(PrivateKey key) {
+            super(key);
+            this.decryptKey = (DecryptKey) key;
+        }
+
+        @Override
+        public byte[] decrypt(byte[] ciphertext, Map<String, Object> params) {
+            return decrypt(decryptKey, ciphertext, params);
+        }
+
+        @Override
+        public boolean matchEncryptKey(EncryptKey pKey) {
+            return decryptKey.matchEncryptKey(pKey);
+        }
+    }
+
+}
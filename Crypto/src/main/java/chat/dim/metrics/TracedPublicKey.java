@@ -0,0 +1,76 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.metrics;
+
+import java.util.Map;
+
+import chat.dim.protocol.EncryptKey;
+import chat.dim.protocol.PublicKey;
+import chat.dim.protocol.SignKey;
+
+class TracedPublicKey extends TracedKey implements PublicKey {
+
+    private final PublicKey key;
+
+    TracedPublicKey(PublicKey key) {
+        super(key);
+        this.key = key;
+    }
+
+    @Override
+    protected PublicKey getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean verify(byte[] data, byte[] signature) {
+        return verify(key, data, signature);
+    }
+
+    @Override
+    public boolean matchSignKey(SignKey sKey) {
+        return key.matchSignKey(sKey);
+    }
+
+    /**
+     *  Public key for encryption (e.g. RSA)
+     */
+    static final class Encryptable extends TracedPublicKey implements EncryptKey {
+
+        private final EncryptKey encryptKey;
+
+        Encryptable(PublicKey key) {
+            super(key);
+            this.encryptKey = (EncryptKey) key;
+        }
+
+        @Override
+        public byte[] encrypt(byte[] plaintext, Map<String, Object> extra) {
+            return encrypt(encryptKey, plaintext, extra);
+        }
+    }
+
+}
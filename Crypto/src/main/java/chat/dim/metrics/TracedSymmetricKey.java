@@ -0,0 +1,62 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.metrics;
+
+import java.util.Map;
+
+import chat.dim.protocol.EncryptKey;
+import chat.dim.protocol.SymmetricKey;
+
+final class TracedSymmetricKey extends TracedKey implements SymmetricKey {
+
+    private final SymmetricKey key;
+
+    TracedSymmetricKey(SymmetricKey key) {
+        super(key);
+        this.key = key;
+    }
+
+    @Override
+    protected SymmetricKey getKey() {
+        return key;
+    }
+
+    @Override
+    public byte[] encrypt(byte[] plaintext, Map<String, Object> extra) {
+        return encrypt(key, plaintext, extra);
+    }
+
+    @Override
+    public byte[] decrypt(byte[] ciphertext, Map<String, Object> params) {
+        return decrypt(key, ciphertext, params);
+    }
+
+    @Override
+    public boolean matchEncryptKey(EncryptKey pKey) {
+        return key.matchEncryptKey(pKey);
+    }
+
+}
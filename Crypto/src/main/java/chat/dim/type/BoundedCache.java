@@ -0,0 +1,260 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.type;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *  Bounded Cache
+ *  <p>
+ *      Concurrent LRU cache split into segments by key hash,
+ *      each segment has its own lock and evicts its eldest entries;
+ *      values can be held by strong, soft or weak references.
+ *  </p>
+ *
+ * @param <K> - key type
+ * @param <V> - value type
+ */
+public class BoundedCache<K, V> {
+
+    // reference strength
+    public static final int STRONG = 0;
+    public static final int SOFT   = 1;
+    public static final int WEAK   = 2;
+
+    private final Segment<K>[] segments;
+    private final int mask;
+    private final int strength;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     *  Create cache
+     *
+     * @param capacity    - max entries
+     * @param concurrency - expected concurrent threads, for count of segments
+     * @param strength    - STRONG, SOFT or WEAK
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedCache(int capacity, int concurrency, int strength) {
+        super();
+        assert capacity > 0 : "cache capacity error: " + capacity;
+        assert strength == STRONG || strength == SOFT || strength == WEAK : "strength error: " + strength;
+        // segments: power of 2, each holds 16 entries at least
+        int count = 1;
+        while (count < concurrency && count * 16 <= capacity) {
+            count <<= 1;
+        }
+        int limit = (capacity + count - 1) / count;
+        segments = (Segment<K>[]) new Segment<?>[count];
+        for (int i = 0; i < count; ++i) {
+            segments[i] = new Segment<>(limit, evictions);
+        }
+        mask = count - 1;
+        this.strength = strength;
+    }
+
+    public BoundedCache(int capacity) {
+        this(capacity, 16, STRONG);
+    }
+
+    private Segment<K> segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & mask];
+    }
+
+    /**
+     *  Get cached value, and mark it as recently used
+     *
+     * @return null on not found
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Segment<K> segment = segmentFor(key);
+        Object value;
+        segment.lock.lock();
+        try {
+            value = segment.get(key);
+            if (value instanceof Reference) {
+                value = ((Reference<?>) value).get();
+                if (value == null) {
+                    // collected
+                    segment.remove(key);
+                }
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        if (value == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return (V) value;
+    }
+
+    public void put(K key, V value) {
+        assert value != null : "cache value should not be empty: " + key;
+        Object holder;
+        if (strength == SOFT) {
+            holder = new SoftReference<>(value);
+        } else if (strength == WEAK) {
+            holder = new WeakReference<>(value);
+        } else {
+            holder = value;
+        }
+        Segment<K> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.put(key, holder);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void remove(K key) {
+        Segment<K> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.remove(key);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void clear() {
+        for (Segment<K> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     *  Remove entries whose values were collected
+     */
+    public void purge() {
+        if (strength == STRONG) {
+            return;
+        }
+        Iterator<Object> it;
+        Object value;
+        for (Segment<K> segment : segments) {
+            segment.lock.lock();
+            try {
+                it = segment.values().iterator();
+                while (it.hasNext()) {
+                    value = it.next();
+                    if (((Reference<?>) value).get() == null) {
+                        it.remove();
+                    }
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     *  Count of entries (including collected values not purged yet)
+     */
+    public int size() {
+        int total = 0;
+        for (Segment<K> segment : segments) {
+            segment.lock.lock();
+            try {
+                total += segment.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    //
+    //  Statistics
+    //
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "<" + getClass().getSimpleName() + " size=" + size() + " hits=" + getHitCount()
+                + " misses=" + getMissCount() + " evictions=" + getEvictionCount() + " />";
+    }
+
+    /**
+     *  LRU table with lock
+     */
+    private static final class Segment<K> extends LinkedHashMap<K, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        final ReentrantLock lock = new ReentrantLock();
+
+        private final int limit;
+        private final LongAdder evictions;
+
+        Segment(int limit, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.limit = limit;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Object> eldest) {
+            if (size() > limit) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+}
@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import chat.dim.data.Comparator;
@@ -39,6 +40,11 @@ public class Dictionary implements Mapper {
 
     private final Map<String, Object> dictionary;
 
+    // content hash (opt-in)
+    private boolean hashing = false;
+    private boolean hashed = false;
+    private int hash = 0;
+
     protected Dictionary() {
         super();
         dictionary = new HashMap<>();
@@ -136,6 +142,27 @@ public class Dictionary implements Mapper {
         return Converter.getDateTime(dictionary.get(key));
     }
 
+    @Override
+    public boolean getBool(String key, boolean defaultValue) {
+        return Converter.getBool(dictionary.get(key), defaultValue);
+    }
+    @Override
+    public int getInt(String key, int defaultValue) {
+        return Converter.getInt(dictionary.get(key), defaultValue);
+    }
+    @Override
+    public long getLong(String key, long defaultValue) {
+        return Converter.getLong(dictionary.get(key), defaultValue);
+    }
+    @Override
+    public double getDouble(String key, double defaultValue) {
+        return Converter.getDouble(dictionary.get(key), defaultValue);
+    }
+    @Override
+    public long getEpochMillis(String key, long defaultValue) {
+        return Converter.getEpochMillis(dictionary.get(key), defaultValue);
+    }
+
     @Override
     public void setDateTime(String key, Date time) {
         if (time == null) {
@@ -182,15 +209,59 @@ public class Dictionary implements Mapper {
         return dictionary.toString();
     }
 
+    //
+    //  Content Hash
+    //
+
+    /**
+     *  Enable/disable content hash mode
+     *  <p>
+     *      When enabled, the hash code will be cached and updated incrementally
+     *      by 'put()', 'remove()', 'putAll()' and 'clear()', so that 'hashCode()'
+     *      costs O(1), and 'equals()' between two dictionaries in this mode
+     *      returns false at once when their hash codes differ.
+     *  </p>
+     *  <p>
+     *      NOTICE: while this mode is on, the contents must be changed only by
+     *              the methods above; changing the inner map directly (by the
+     *              map given to the constructor, 'toMap()', the views, or values
+     *              modified in place) leaves the cached hash stale, which breaks
+     *              both 'hashCode()' and 'equals()'.
+     *  </p>
+     *
+     * @param enabled
+     *        true to cache content hash
+     */
+    public void setContentHashing(boolean enabled) {
+        hashing = enabled;
+        hashed = false;
+    }
+
+    public boolean isContentHashing() {
+        return hashing;
+    }
+
+    private static int entryHash(Object key, Object value) {
+        // same as 'Map.Entry.hashCode()'
+        return Objects.hashCode(key) ^ Objects.hashCode(value);
+    }
+
     @Override
     public boolean equals(Object other) {
         if (other == null) {
             return dictionary.isEmpty();
-        } else if (other instanceof Mapper) {
+        } else if (other instanceof Dictionary) {
             if (this == other) {
                 // same object
                 return true;
             }
+            Dictionary that = (Dictionary) other;
+            if (hashing && that.hashing && hashCode() != that.hashCode()) {
+                // different contents
+                return false;
+            }
+            other = that.dictionary;
+        } else if (other instanceof Mapper) {
             // compare inner map
             other = ((Mapper) other).toMap();
         }
@@ -199,7 +270,13 @@ public class Dictionary implements Mapper {
 
     @Override
     public int hashCode() {
-        return dictionary.hashCode();
+        if (!hashing) {
+            return dictionary.hashCode();
+        } else if (!hashed) {
+            hash = dictionary.hashCode();
+            hashed = true;
+        }
+        return hash;
     }
 
     @Override
@@ -229,22 +306,47 @@ public class Dictionary implements Mapper {
 
     @Override
     public Object put(String key, Object value) {
-        return dictionary.put(key, value);
+        if (!hashed) {
+            return dictionary.put(key, value);
+        }
+        boolean exists = dictionary.containsKey(key);
+        Object old = dictionary.put(key, value);
+        if (exists) {
+            hash -= entryHash(key, old);
+        }
+        hash += entryHash(key, value);
+        return old;
     }
 
     @Override
     public Object remove(Object key) {
-        return dictionary.remove(key);
+        if (!hashed) {
+            return dictionary.remove(key);
+        }
+        boolean exists = dictionary.containsKey(key);
+        Object old = dictionary.remove(key);
+        if (exists) {
+            hash -= entryHash(key, old);
+        }
+        return old;
     }
 
     @Override
     public void putAll(Map<? extends String, ?> m) {
-        dictionary.putAll(m);
+        if (!hashed) {
+            dictionary.putAll(m);
+            return;
+        }
+        for (Map.Entry<? extends String, ?> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
     }
 
     @Override
     public void clear() {
         dictionary.clear();
+        hash = 0;
+        hashed = hashing;
     }
 
     @Override
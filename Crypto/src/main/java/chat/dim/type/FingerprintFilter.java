@@ -0,0 +1,155 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.type;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *  Fingerprint Filter
+ *  <p>
+ *      Remembers recently added strings by 64-bit fingerprints
+ *      in a fixed table (2 slots per bucket), lock-free;
+ *      new fingerprints overwrite old ones when the bucket is full,
+ *      so memory stays the same whatever is added.
+ *  </p>
+ *
+ *  <pre>
+ *  Fingerprints are hashed with a random seed per filter,
+ *  so inputs cannot be crafted to collide with a known string;
+ *  false positive rate is about 2^-63 per lookup.
+ *  </pre>
+ */
+public class FingerprintFilter {
+
+    private final AtomicLongArray table;
+    private final int mask;
+    private final long seed;
+
+    private final LongAdder additions = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     *  Create filter
+     *
+     * @param capacity - max fingerprints (rounded up to power of 2), 8 bytes each
+     */
+    public FingerprintFilter(int capacity) {
+        super();
+        assert capacity > 1 : "filter capacity error: " + capacity;
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        table = new AtomicLongArray(size);
+        // bucket = 2 slots
+        mask = (size - 1) & ~1;
+        seed = new SecureRandom().nextLong();
+    }
+
+    /**
+     *  Seeded 64-bit hash, never 0 (empty slot)
+     */
+    protected long fingerprint(CharSequence string) {
+        long h = seed ^ string.length();
+        int len = string.length();
+        for (int i = 0; i < len; ++i) {
+            h = (h ^ string.charAt(i)) * 0x100000001B3L;
+        }
+        // finalizer (MurmurHash3 fmix64)
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    private int bucketOf(long fp) {
+        return (int) (fp ^ (fp >>> 32)) & mask;
+    }
+
+    /**
+     *  Check whether the string was added
+     */
+    public boolean contains(CharSequence string) {
+        long fp = fingerprint(string);
+        int index = bucketOf(fp);
+        if (table.get(index) == fp || table.get(index + 1) == fp) {
+            hits.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public void add(CharSequence string) {
+        long fp = fingerprint(string);
+        int index = bucketOf(fp);
+        long first = table.get(index);
+        if (first == fp || table.get(index + 1) == fp) {
+            return;
+        }
+        if (first == 0 && table.compareAndSet(index, 0, fp)) {
+            additions.increment();
+            return;
+        }
+        // move first to second, newest first;
+        // racing writers may lose a fingerprint, which only costs a miss
+        table.set(index + 1, first);
+        table.set(index, fp);
+        additions.increment();
+    }
+
+    public void clear() {
+        for (int i = 0; i < table.length(); ++i) {
+            table.set(i, 0);
+        }
+    }
+
+    //
+    //  Statistics
+    //
+
+    public int getCapacity() {
+        return table.length();
+    }
+
+    public long getAddCount() {
+        return additions.sum();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "<" + getClass().getSimpleName() + " capacity=" + getCapacity()
+                + " added=" + getAddCount() + " hits=" + getHitCount() + " />";
+    }
+
+}
@@ -28,6 +28,8 @@ package chat.dim.type;
 import java.util.Date;
 import java.util.Map;
 
+import chat.dim.data.Converter;
+
 public interface Mapper extends Map<String, Object> {
 
     String   getString(String key, String  defaultValue);
@@ -52,6 +54,30 @@ public interface Mapper extends Map<String, Object> {
     Date getDateTime(String key, Date defaultValue);
     void setDateTime(String key, Date time);
 
+    //
+    //  Primitives (without boxing)
+    //
+
+    default boolean getBool(String key, boolean defaultValue) {
+        return Converter.getBool(get(key), defaultValue);
+    }
+    default int getInt(String key, int defaultValue) {
+        return Converter.getInt(get(key), defaultValue);
+    }
+    default long getLong(String key, long defaultValue) {
+        return Converter.getLong(get(key), defaultValue);
+    }
+    default double getDouble(String key, double defaultValue) {
+        return Converter.getDouble(get(key), defaultValue);
+    }
+
+    /**
+     *  Get timestamp in milliseconds
+     */
+    default long getEpochMillis(String key, long defaultValue) {
+        return Converter.getEpochMillis(get(key), defaultValue);
+    }
+
     void setString(String key, Stringer stringer);
     void setMap(String key, Mapper mapper);
 
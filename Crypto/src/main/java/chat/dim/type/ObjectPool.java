@@ -0,0 +1,123 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.type;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ *  Object Pool
+ *  <p>
+ *      Lock-free pool for reusable objects (coders, ciphers, ...),
+ *      shared by all threads, so it works for virtual threads too;
+ *      creates a new object when the pool is empty,
+ *      and drops released objects when the pool is full.
+ *  </p>
+ *
+ * @param <T> - object type
+ */
+public abstract class ObjectPool<T> {
+
+    private final AtomicReferenceArray<T> slots;
+
+    public ObjectPool(int capacity) {
+        super();
+        assert capacity > 0 : "pool capacity error: " + capacity;
+        slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public ObjectPool() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     *  Create new object when pool is empty
+     */
+    protected abstract T create();
+
+    // start from different slots for different threads
+    private static int probe(int length) {
+        long id = Thread.currentThread().getId();
+        return (int) (id % length);
+    }
+
+    /**
+     *  Take an object from the pool, or create a new one
+     *
+     * @return object, must be released after used
+     */
+    public T borrow() {
+        T obj = poll();
+        return obj == null ? create() : obj;
+    }
+
+    /**
+     *  Take an idle object from the pool
+     *
+     * @return null on empty
+     */
+    public T poll() {
+        int length = slots.length();
+        int index = probe(length);
+        T obj;
+        for (int i = 0; i < length; ++i) {
+            obj = slots.get(index);
+            if (obj != null && slots.compareAndSet(index, obj, null)) {
+                return obj;
+            }
+            if (++index == length) {
+                index = 0;
+            }
+        }
+        return null;
+    }
+
+    /**
+     *  Put the object back to the pool
+     */
+    public void release(T obj) {
+        int length = slots.length();
+        int index = probe(length);
+        for (int i = 0; i < length; ++i) {
+            if (slots.get(index) == null && slots.compareAndSet(index, null, obj)) {
+                return;
+            }
+            if (++index == length) {
+                index = 0;
+            }
+        }
+        // pool is full, drop it
+    }
+
+    /**
+     *  Remove all idle objects
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); ++i) {
+            slots.set(i, null);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.base;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import chat.dim.data.Converter;
+
+public class BaseConverterTest {
+
+    private final BaseConverter converter = new BaseConverter(false);
+
+    private Map<String, Boolean> states;
+
+    @Before
+    public void setUp() {
+        states = Converter.BOOLEAN_STATES;
+        Converter.BOOLEAN_STATES = new HashMap<>(states);
+    }
+
+    @After
+    public void tearDown() {
+        Converter.BOOLEAN_STATES = states;
+    }
+
+    @Test
+    public void testDefaultStates() {
+        Assert.assertEquals(true, converter.getBoolean("yes", null));
+        Assert.assertEquals(true, converter.getBoolean(" TRUE ", null));
+        Assert.assertEquals(false, converter.getBoolean("Off", null));
+        Assert.assertEquals(false, converter.getBoolean("0", null));
+        Assert.assertEquals(false, converter.getBoolean("", null));
+        Assert.assertEquals(true, converter.getBoolean(new StringBuilder("on"), null));
+    }
+
+    @Test
+    public void testCustomizedStates() {
+        Converter.BOOLEAN_STATES.put("enabled", true);
+        Converter.BOOLEAN_STATES.put("yes", false);
+        Converter.BOOLEAN_STATES.remove("on");
+        Assert.assertEquals(true, converter.getBoolean("Enabled", null));
+        // the table wins over the usual meaning
+        Assert.assertEquals(false, converter.getBoolean("yes", null));
+        Assert.assertNull(converter.getBoolean("on", null));
+        // replaced table
+        Map<String, Boolean> table = new HashMap<>();
+        table.put("Y", true);
+        Converter.BOOLEAN_STATES = table;
+        Assert.assertEquals(true, converter.getBoolean("Y", null));
+        Assert.assertNull(converter.getBoolean("true", null));
+    }
+
+}
@@ -0,0 +1,189 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.crypto;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import chat.dim.protocol.TransportableData;
+
+public class BaseSymmetricKeyTest {
+
+    static class TestKey extends BaseSymmetricKey {
+
+        int created = 0;
+
+        TestKey(Map<String, Object> key) {
+            super(key);
+        }
+
+        byte[] getKeyData() {
+            byte[] data = new byte[16];
+            Arrays.fill(data, ((Number) get("data")).byteValue());
+            return data;
+        }
+
+        @Override
+        protected CipherContext createCipherContext() {
+            ++created;
+            return new CipherContext("AES/CBC/PKCS5Padding", new SecretKeySpec(getKeyData(), "AES"));
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return "AES";
+        }
+
+        @Override
+        public TransportableData getData() {
+            return null;
+        }
+
+        @Override
+        public byte[] encrypt(byte[] plaintext, Map<String, Object> extra) {
+            try {
+                return getCipherContext().encrypt(plaintext, new IvParameterSpec(new byte[16]));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public byte[] decrypt(byte[] ciphertext, Map<String, Object> params) {
+            try {
+                return getCipherContext().decrypt(ciphertext, new IvParameterSpec(new byte[16]));
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
+    private static TestKey createKey(int data) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("algorithm", "AES");
+        info.put("data", data);
+        return new TestKey(info);
+    }
+
+    @Test
+    public void testContextReused() {
+        TestKey key = createKey(1);
+        byte[] plaintext = "hello".getBytes();
+        byte[] ciphertext = key.encrypt(plaintext, null);
+        Assert.assertArrayEquals(plaintext, key.decrypt(ciphertext, null));
+        Assert.assertEquals(1, key.created);
+        // same value, context kept
+        key.put("data", 1);
+        key.encrypt(plaintext, null);
+        Assert.assertEquals(1, key.created);
+    }
+
+    @Test
+    public void testContextResetOnPut() {
+        TestKey key = createKey(1);
+        byte[] plaintext = "hello".getBytes();
+        byte[] ciphertext = key.encrypt(plaintext, null);
+        key.put("data", 2);
+        Assert.assertFalse(Arrays.equals(ciphertext, key.encrypt(plaintext, null)));
+        Assert.assertArrayEquals(ciphertext, createKey(1).encrypt(plaintext, null));
+        Assert.assertEquals(2, key.created);
+    }
+
+    @Test
+    public void testContextResetOnPutAll() {
+        TestKey key = createKey(1);
+        byte[] plaintext = "hello".getBytes();
+        byte[] ciphertext = key.encrypt(plaintext, null);
+        Map<String, Object> info = new HashMap<>();
+        info.put("data", 3);
+        key.putAll(info);
+        Assert.assertArrayEquals(createKey(3).encrypt(plaintext, null), key.encrypt(plaintext, null));
+        Assert.assertFalse(Arrays.equals(ciphertext, key.encrypt(plaintext, null)));
+        Assert.assertEquals(2, key.created);
+    }
+
+    @Test
+    public void testContextResetOnRemove() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("algorithm", "AES");
+        info.put("data", 1);
+        TestKey key = new TestKey(info);
+        key.encrypt("hello".getBytes(), null);
+        Assert.assertEquals(1, key.created);
+        key.remove("algorithm");
+        key.encrypt("hello".getBytes(), null);
+        Assert.assertEquals(2, key.created);
+    }
+
+    @Test
+    public void testContextKeptOnParams() {
+        Map<String, Object> info = new HashMap<>();
+        info.put("algorithm", "AES");
+        info.put("data", 1);
+        info.put("iv", "x");
+        TestKey key = new TestKey(info);
+        key.encrypt("hello".getBytes(), null);
+        key.put("iv", "y");
+        key.put("reused", true);
+        key.remove("iv");
+        Map<String, Object> params = new HashMap<>();
+        params.put("mode", "CBC");
+        key.putAll(params);
+        key.encrypt("hello".getBytes(), null);
+        Assert.assertEquals(1, key.created);
+    }
+
+    @Test
+    public void testKeyChangedWhileCreating() {
+        final byte[] plaintext = "hello".getBytes();
+        Map<String, Object> info = new HashMap<>();
+        info.put("algorithm", "AES");
+        info.put("data", 1);
+        TestKey key = new TestKey(info) {
+            @Override
+            protected CipherContext createCipherContext() {
+                CipherContext ctx = super.createCipherContext();
+                if (created == 1) {
+                    // another thread changes the key data meanwhile
+                    put("data", 2);
+                }
+                return ctx;
+            }
+        };
+        // stale context is used once, but not kept
+        Assert.assertArrayEquals(createKey(1).encrypt(plaintext, null), key.encrypt(plaintext, null));
+        Assert.assertArrayEquals(createKey(2).encrypt(plaintext, null), key.encrypt(plaintext, null));
+        Assert.assertEquals(2, key.created);
+    }
+
+}
@@ -0,0 +1,167 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.ext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import chat.dim.protocol.PublicKey;
+import chat.dim.protocol.SignKey;
+import chat.dim.protocol.SymmetricKey;
+import chat.dim.protocol.TransportableData;
+import chat.dim.type.BoundedCache;
+import chat.dim.type.Dictionary;
+
+public class CachedKeyHelperTest {
+
+    static class TestPublicKey extends Dictionary implements PublicKey {
+
+        TestPublicKey(Map<String, Object> key) {
+            super(key);
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return getString("algorithm");
+        }
+
+        @Override
+        public TransportableData getData() {
+            return null;
+        }
+
+        @Override
+        public boolean verify(byte[] data, byte[] signature) {
+            return false;
+        }
+
+        @Override
+        public boolean matchSignKey(SignKey sKey) {
+            return false;
+        }
+    }
+
+    static class TestPublicKeyHelper implements PublicKeyHelper {
+
+        int parsed = 0;
+
+        @Override
+        public void setPublicKeyFactory(String algorithm, PublicKey.Factory factory) {
+        }
+
+        @Override
+        public PublicKey.Factory getPublicKeyFactory(String algorithm) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public PublicKey parsePublicKey(Object key) {
+            ++parsed;
+            return new TestPublicKey((Map<String, Object>) key);
+        }
+    }
+
+    static class TestSymmetricKeyHelper implements SymmetricKeyHelper {
+
+        int parsed = 0;
+
+        @Override
+        public void setSymmetricKeyFactory(String algorithm, SymmetricKey.Factory factory) {
+        }
+
+        @Override
+        public SymmetricKey.Factory getSymmetricKeyFactory(String algorithm) {
+            return null;
+        }
+
+        @Override
+        public SymmetricKey generateSymmetricKey(String algorithm) {
+            return null;
+        }
+
+        @Override
+        public SymmetricKey parseSymmetricKey(Object key) {
+            ++parsed;
+            return null;
+        }
+    }
+
+    private TestPublicKeyHelper publicHelper;
+    private TestSymmetricKeyHelper symmetricHelper;
+    private CachedKeyHelper helper;
+
+    @Before
+    public void setUp() {
+        publicHelper = new TestPublicKeyHelper();
+        symmetricHelper = new TestSymmetricKeyHelper();
+        helper = new CachedKeyHelper(symmetricHelper, (PrivateKeyHelper) null, publicHelper, 64, BoundedCache.STRONG);
+    }
+
+    private static Map<String, Object> keyInfo(String data) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("algorithm", "ECC");
+        info.put("data", data);
+        return info;
+    }
+
+    @Test
+    public void testSameInfoSameKey() {
+        PublicKey first = helper.parsePublicKey(keyInfo("abc"));
+        PublicKey second = helper.parsePublicKey(keyInfo("abc"));
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, publicHelper.parsed);
+    }
+
+    @Test
+    public void testSourceMapChanged() {
+        Map<String, Object> info = keyInfo("abc");
+        PublicKey first = helper.parsePublicKey(info);
+        // the caller changes its own map after parsing
+        info.put("data", "xyz");
+        info.put("mode", "test");
+        Assert.assertEquals("abc", first.toMap().get("data"));
+        Assert.assertNull(first.toMap().get("mode"));
+        PublicKey second = helper.parsePublicKey(info);
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals("xyz", second.toMap().get("data"));
+        // the cached key is still found by the original info
+        Assert.assertSame(first, helper.parsePublicKey(keyInfo("abc")));
+        Assert.assertEquals(2, publicHelper.parsed);
+    }
+
+    @Test
+    public void testSymmetricKeysNotCached() {
+        helper.parseSymmetricKey(keyInfo("abc"));
+        helper.parseSymmetricKey(keyInfo("abc"));
+        Assert.assertEquals(2, symmetricHelper.parsed);
+    }
+
+}
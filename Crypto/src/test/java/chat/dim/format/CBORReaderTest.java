@@ -0,0 +1,80 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.format;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CBORReaderTest {
+
+    private static Object read(byte[] data, int maxDepth) {
+        return new CBORReader(ByteBuffer.wrap(data), maxDepth).read();
+    }
+
+    // [[[ ... ]]]
+    private static byte[] nestedArrays(int levels) {
+        byte[] data = new byte[levels + 1];
+        Arrays.fill(data, 0, levels, (byte) 0x81);
+        data[levels] = (byte) 0x80;
+        return data;
+    }
+
+    // tag(0) tag(0) ... 0
+    private static byte[] nestedTags(int levels) {
+        byte[] data = new byte[levels + 1];
+        Arrays.fill(data, 0, levels, (byte) 0xC0);
+        data[levels] = 0x00;
+        return data;
+    }
+
+    @Test
+    public void testNestingDepth() {
+        Object value = read(nestedArrays(8), 16);
+        Assert.assertTrue(value instanceof List);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNestingTooDeep() {
+        read(nestedArrays(100000), 512);
+    }
+
+    @Test
+    public void testNestedTags() {
+        Object value = read(nestedTags(8), 16);
+        Assert.assertEquals(0, ((Number) value).intValue());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNestedTagsTooDeep() {
+        // would overflow the stack without depth checking
+        read(nestedTags(200000), 512);
+    }
+
+}
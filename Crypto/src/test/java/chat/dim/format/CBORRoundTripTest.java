@@ -0,0 +1,197 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.format;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CBORRoundTripTest {
+
+    private final CBORCoder coder = new CBORCoder();
+
+    private Object roundTrip(Object value) {
+        return coder.decode(coder.encode(value));
+    }
+
+    private void checkInteger(long value, int size) {
+        byte[] data = coder.encode(value);
+        Assert.assertEquals("encoded size of " + value, size, data.length);
+        Number result = (Number) coder.decode(data);
+        Assert.assertEquals(value, result.longValue());
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            Assert.assertTrue(result instanceof Integer);
+        } else {
+            Assert.assertTrue(result instanceof Long);
+        }
+    }
+
+    @Test
+    public void testIntegerBoundaries() {
+        checkInteger(0, 1);
+        checkInteger(23, 1);
+        checkInteger(24, 2);
+        checkInteger(255, 2);
+        checkInteger(256, 3);
+        checkInteger(65535, 3);
+        checkInteger(65536, 5);
+        checkInteger(0xFFFFFFFFL, 5);
+        checkInteger(0x100000000L, 9);
+        checkInteger(Long.MAX_VALUE, 9);
+    }
+
+    @Test
+    public void testNegativeIntegers() {
+        checkInteger(-1, 1);
+        checkInteger(-24, 1);
+        checkInteger(-25, 2);
+        checkInteger(-256, 2);
+        checkInteger(-257, 3);
+        checkInteger(Integer.MIN_VALUE, 5);
+        checkInteger(-0x100000001L, 9);
+        checkInteger(Long.MIN_VALUE, 9);
+        Assert.assertEquals(-5, roundTrip((short) -5));
+        Assert.assertEquals(-5, roundTrip((byte) -5));
+    }
+
+    @Test
+    public void testBigIntegers() {
+        BigInteger uint64 = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        BigInteger[] values = {
+                BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE),
+                uint64,
+                uint64.negate().subtract(BigInteger.ONE),
+                // bignums
+                uint64.add(BigInteger.ONE),
+                uint64.negate().subtract(BigInteger.valueOf(2)),
+                BigInteger.ONE.shiftLeft(200),
+                BigInteger.ONE.shiftLeft(200).negate(),
+        };
+        for (BigInteger value : values) {
+            Assert.assertEquals(value, roundTrip(value));
+        }
+        // 64-bit argument, no tag
+        Assert.assertEquals(9, coder.encode(uint64).length);
+        Assert.assertEquals(0xC2, coder.encode(uint64.add(BigInteger.ONE))[0] & 0xFF);
+        Assert.assertEquals(0xC3, coder.encode(uint64.negate().subtract(BigInteger.valueOf(2)))[0] & 0xFF);
+        // small BigInteger as integer
+        Assert.assertEquals(42, roundTrip(BigInteger.valueOf(42)));
+    }
+
+    @Test
+    public void testDecimals() {
+        String[] values = {
+                "3.14159265358979323846264338327950288",
+                "-1E-400",
+                "12345678901234567890123.5",
+                "1.10",
+                "0",
+        };
+        BigDecimal decimal;
+        for (String text : values) {
+            decimal = new BigDecimal(text);
+            // same scale
+            Assert.assertEquals(decimal, roundTrip(decimal));
+        }
+    }
+
+    @Test
+    public void testFloats() {
+        Assert.assertEquals(1.5f, roundTrip(1.5f));
+        Assert.assertEquals(Float.NaN, roundTrip(Float.NaN));
+        Assert.assertEquals(Double.MAX_VALUE, roundTrip(Double.MAX_VALUE));
+        Assert.assertEquals(Double.MIN_VALUE, roundTrip(Double.MIN_VALUE));
+        Assert.assertEquals(Double.NEGATIVE_INFINITY, roundTrip(Double.NEGATIVE_INFINITY));
+        Object zero = roundTrip(-0.0);
+        Assert.assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits((Double) zero));
+    }
+
+    @Test
+    public void testBytesAndText() {
+        byte[] empty = new byte[0];
+        Assert.assertArrayEquals(empty, (byte[]) roundTrip(empty));
+        byte[] data = new byte[300];
+        for (int i = 0; i < data.length; ++i) {
+            data[i] = (byte) i;
+        }
+        Assert.assertArrayEquals(data, (byte[]) roundTrip(data));
+        String[] texts = {"", "moky", "中文", "😀 emoji", "twenty-four characters!!"};
+        for (String text : texts) {
+            Assert.assertEquals(text, roundTrip(text));
+        }
+    }
+
+    @Test
+    public void testNestedMaps() {
+        Map<String, Object> inner = new HashMap<>();
+        inner.put("data", new byte[]{1, 2, 3});
+        inner.put("name", "中文");
+        inner.put("none", null);
+        List<Object> list = new ArrayList<>();
+        list.add(1);
+        list.add(-1.5);
+        list.add(true);
+        list.add(inner);
+        Map<String, Object> outer = new HashMap<>();
+        outer.put("list", list);
+        outer.put("map", inner);
+        outer.put("flag", false);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> result = (Map<String, Object>) roundTrip(outer);
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals(false, result.get("flag"));
+        List<?> items = (List<?>) result.get("list");
+        Assert.assertEquals(Arrays.asList(1, -1.5, true), items.subList(0, 3));
+        Map<?, ?> map = (Map<?, ?>) items.get(3);
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) map.get("data"));
+        Assert.assertEquals("中文", map.get("name"));
+        Assert.assertTrue(map.containsKey("none"));
+        Assert.assertNull(map.get("none"));
+        Assert.assertEquals(((Map<?, ?>) result.get("map")).keySet(), map.keySet());
+    }
+
+    @Test
+    public void testBase64Tag() {
+        // tag(22) h'616263', with no Base64 coder installed
+        DataCoder base64 = Base64.coder;
+        Base64.coder = null;
+        try {
+            byte[] data = {(byte) 0xD6, 0x43, 'a', 'b', 'c'};
+            Assert.assertEquals("YWJj", coder.decode(data));
+        } finally {
+            Base64.coder = base64;
+        }
+    }
+
+}
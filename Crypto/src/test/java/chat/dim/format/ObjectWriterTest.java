@@ -0,0 +1,64 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.format;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ObjectWriterTest {
+
+    private static Map<String, Object> wrap(Object value) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("value", value);
+        return info;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testJSONBytes() {
+        JSONWriter.encode(wrap(new byte[]{1, 2, 3}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testJSONUnknown() {
+        JSONWriter.encode(wrap(new Object()));
+    }
+
+    @Test
+    public void testCBORBytes() {
+        CBORCoder coder = new CBORCoder();
+        Map<?, ?> info = (Map<?, ?>) coder.decode(coder.encode(wrap(new byte[]{1, 2, 3})));
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) info.get("value"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCBORUnknown() {
+        new CBORCoder().encode(wrap(new Object()));
+    }
+
+}
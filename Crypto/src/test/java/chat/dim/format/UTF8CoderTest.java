@@ -0,0 +1,66 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.format;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UTF8CoderTest {
+
+    private final UTF8Coder coder = new UTF8Coder();
+
+    @Test
+    public void testEncodeIntoBuffer() {
+        String text = "moky-中文-😀";
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        buffer.put((byte) 1);
+        coder.encode(text, buffer);
+        Assert.assertEquals(1 + coder.encode(text).length, buffer.position());
+        buffer.flip();
+        buffer.get();
+        Assert.assertEquals(text, coder.decode(buffer));
+    }
+
+    @Test
+    public void testOverflowKeepsPosition() {
+        String[] texts = {"abcdefghij", "中文中文中文", "ab😀"};
+        ByteBuffer buffer;
+        for (String text : texts) {
+            buffer = ByteBuffer.allocate(coder.encode(text).length + 1);
+            buffer.position(2);
+            try {
+                coder.encode(text, buffer);
+                Assert.fail("should overflow: " + text);
+            } catch (BufferOverflowException e) {
+                Assert.assertEquals(2, buffer.position());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.type;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DictionaryTest {
+
+    /**
+     *  Value counting equals() calls
+     */
+    static class Probe {
+
+        static int compared = 0;
+
+        private final int value;
+
+        Probe(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            ++compared;
+            return other instanceof Probe && ((Probe) other).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+    }
+
+    private static Dictionary create(Map<String, Object> map, boolean hashing) {
+        Dictionary dict = new Dictionary(map) {};
+        dict.setContentHashing(hashing);
+        return dict;
+    }
+
+    private static Map<String, Object> sample() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("ID", "moky@anywhere");
+        map.put("type", "visa");
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("name", "Moky");
+        map.put("properties", nested);
+        return map;
+    }
+
+    private static void checkConsistent(Dictionary dict) {
+        Map<String, Object> expected = new HashMap<>(dict.toMap());
+        Assert.assertEquals(expected.hashCode(), dict.hashCode());
+        Dictionary other = create(new HashMap<>(expected), true);
+        Assert.assertTrue(dict.equals(other));
+        Assert.assertTrue(other.equals(dict));
+        Assert.assertEquals(other.hashCode(), dict.hashCode());
+    }
+
+    @Test
+    public void testHashAfterPut() {
+        Dictionary dict = create(sample(), true);
+        checkConsistent(dict);
+        dict.put("time", 1.5);
+        checkConsistent(dict);
+        dict.put("type", "bulletin");
+        checkConsistent(dict);
+        dict.put("type", null);
+        checkConsistent(dict);
+    }
+
+    @Test
+    public void testHashAfterRemove() {
+        Dictionary dict = create(sample(), true);
+        dict.hashCode();
+        dict.remove("type");
+        checkConsistent(dict);
+        dict.remove("missing");
+        checkConsistent(dict);
+    }
+
+    @Test
+    public void testHashAfterPutAll() {
+        Dictionary dict = create(sample(), true);
+        dict.hashCode();
+        Map<String, Object> more = new HashMap<>();
+        more.put("type", "profile");
+        more.put("data", "...");
+        dict.putAll(more);
+        checkConsistent(dict);
+        dict.clear();
+        checkConsistent(dict);
+        dict.putAll(sample());
+        checkConsistent(dict);
+    }
+
+    @Test
+    public void testSameHashWithoutCaching() {
+        Dictionary cached = create(sample(), true);
+        Dictionary plain = create(sample(), false);
+        Assert.assertEquals(plain.hashCode(), cached.hashCode());
+        Assert.assertTrue(plain.equals(cached));
+        Assert.assertTrue(cached.equals(plain));
+    }
+
+    @Test
+    public void testMismatchShortCircuit() {
+        Map<String, Object> map1 = new HashMap<>();
+        map1.put("value", new Probe(1));
+        Map<String, Object> map2 = new HashMap<>();
+        map2.put("value", new Probe(2));
+        Dictionary a = create(map1, true);
+        Dictionary b = create(map2, true);
+        Probe.compared = 0;
+        Assert.assertFalse(a.equals(b));
+        Assert.assertEquals(0, Probe.compared);
+        // same contents are still compared
+        b.put("value", new Probe(1));
+        Assert.assertTrue(a.equals(b));
+        Assert.assertEquals(1, Probe.compared);
+        // without content hashing, contents are compared
+        a.setContentHashing(false);
+        b.put("value", new Probe(2));
+        Probe.compared = 0;
+        Assert.assertFalse(a.equals(b));
+        Assert.assertEquals(1, Probe.compared);
+    }
+
+    @Test
+    public void testMapNotCopied() {
+        Map<String, Object> map = sample();
+        Dictionary dict = create(map, true);
+        Assert.assertSame(map, dict.toMap());
+        dict.put("type", "profile");
+        Assert.assertEquals("profile", map.get("type"));
+        // exposing the map keeps the cached hash
+        dict.toMap();
+        dict.keySet();
+        checkConsistent(dict);
+    }
+
+}
@@ -0,0 +1,295 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.ext;
+
+import java.util.Map;
+
+import chat.dim.data.Converter;
+import chat.dim.data.Wrapper;
+import chat.dim.protocol.Address;
+import chat.dim.protocol.Document;
+import chat.dim.protocol.ID;
+import chat.dim.protocol.Meta;
+import chat.dim.protocol.SignKey;
+import chat.dim.protocol.TransportableData;
+import chat.dim.protocol.VerifyKey;
+import chat.dim.type.Mapper;
+
+/**
+ *  Account GeneralFactory
+ *  <p>
+ *      Default helper for Address, ID, Meta &amp; Document;
+ *      factories for meta/document types are kept in lock-free registries
+ *      with '*' as fallback.
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  new BaseAccountHelper().install();
+ *  Address.setFactory(addressFactory);
+ *  ID.setFactory(idFactory);
+ *  Meta.setFactory("1", metaFactory);
+ *  Document.setFactory("*", docFactory);
+ *  </pre></blockquote>
+ */
+public class BaseAccountHelper implements AddressHelper, IDHelper, MetaHelper, DocumentHelper,
+                                          GeneralAccountHelper {
+
+    private volatile Address.Factory addressFactory = null;
+    private volatile ID.Factory idFactory = null;
+
+    private final FactoryRegistry<Meta.Factory> metaFactories = new FactoryRegistry<>();
+    private final FactoryRegistry<Document.Factory> documentFactories = new FactoryRegistry<>();
+
+    /**
+     *  Set this as all account helpers
+     */
+    public void install() {
+        SharedAccountExtensions.addressHelper = this;
+        SharedAccountExtensions.idHelper = this;
+        SharedAccountExtensions.metaHelper = this;
+        SharedAccountExtensions.docHelper = this;
+        SharedAccountExtensions.helper = this;
+    }
+
+    @Override
+    public String getMetaType(Map<?, ?> meta, String defaultValue) {
+        Object type = meta.get("type");
+        return Converter.getString(type, defaultValue);
+    }
+
+    @Override
+    public String getDocumentType(Map<?, ?> doc, String defaultValue) {
+        Object type = doc.get("type");
+        return Converter.getString(type, defaultValue);
+    }
+
+    @Override
+    public ID getDocumentID(Map<?, ?> doc) {
+        Object did = doc.get("did");
+        return parseID(did);
+    }
+
+    //
+    //  Address
+    //
+
+    @Override
+    public void setAddressFactory(Address.Factory factory) {
+        addressFactory = factory;
+    }
+
+    @Override
+    public Address.Factory getAddressFactory() {
+        return addressFactory;
+    }
+
+    @Override
+    public Address parseAddress(Object address) {
+        if (address == null) {
+            return null;
+        } else if (address instanceof Address) {
+            return (Address) address;
+        }
+        String str = address instanceof String ? (String) address : Wrapper.getString(address);
+        if (str == null) {
+            assert false : "address error: " + address;
+            return null;
+        }
+        Address.Factory factory = addressFactory;
+        assert factory != null : "address factory not ready";
+        return factory == null ? null : factory.parseAddress(str);
+    }
+
+    @Override
+    public Address generateAddress(Meta meta, int network) {
+        Address.Factory factory = addressFactory;
+        assert factory != null : "address factory not ready";
+        return factory == null ? null : factory.generateAddress(meta, network);
+    }
+
+    //
+    //  ID
+    //
+
+    @Override
+    public void setIDFactory(ID.Factory factory) {
+        idFactory = factory;
+    }
+
+    @Override
+    public ID.Factory getIDFactory() {
+        return idFactory;
+    }
+
+    @Override
+    public ID parseID(Object identifier) {
+        if (identifier == null) {
+            return null;
+        } else if (identifier instanceof ID) {
+            return (ID) identifier;
+        }
+        String str = identifier instanceof String ? (String) identifier : Wrapper.getString(identifier);
+        if (str == null) {
+            assert false : "ID error: " + identifier;
+            return null;
+        }
+        return parseID(str);
+    }
+
+    @Override
+    public ID parseID(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        ID.Factory factory = idFactory;
+        assert factory != null : "ID factory not ready";
+        return factory == null ? null : factory.parseID(identifier);
+    }
+
+    @Override
+    public ID createID(String name, Address address, String terminal) {
+        ID.Factory factory = idFactory;
+        assert factory != null : "ID factory not ready";
+        return factory == null ? null : factory.createID(name, address, terminal);
+    }
+
+    @Override
+    public ID generateID(Meta meta, int network) {
+        ID.Factory factory = idFactory;
+        assert factory != null : "ID factory not ready";
+        return factory == null ? null : factory.generateID(meta, network);
+    }
+
+    //
+    //  Meta
+    //
+
+    @Override
+    public void setMetaFactory(String type, Meta.Factory factory) {
+        metaFactories.put(type, factory);
+    }
+
+    @Override
+    public Meta.Factory getMetaFactory(String type) {
+        return metaFactories.get(type);
+    }
+
+    @Override
+    public Meta createMeta(String type, VerifyKey key, String seed, TransportableData fingerprint) {
+        Meta.Factory factory = metaFactories.resolve(type);
+        assert factory != null : "meta type not support: " + type;
+        return factory == null ? null : factory.createMeta(key, seed, fingerprint);
+    }
+
+    @Override
+    public Meta generateMeta(String type, SignKey sKey, String seed) {
+        Meta.Factory factory = metaFactories.resolve(type);
+        assert factory != null : "meta type not support: " + type;
+        return factory == null ? null : factory.generateMeta(sKey, seed);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Meta parseMeta(Object meta) {
+        if (meta instanceof Map) {
+            return parseMeta((Map<String, Object>) meta);
+        } else if (meta == null) {
+            return null;
+        }
+        Map<String, Object> info = Wrapper.getMap(meta);
+        if (info == null) {
+            assert false : "meta error: " + meta;
+            return null;
+        }
+        return parseMeta(info);
+    }
+
+    @Override
+    public Meta parseMeta(Map<String, Object> meta) {
+        if (meta == null) {
+            return null;
+        } else if (meta instanceof Meta) {
+            return (Meta) meta;
+        }
+        Map<String, Object> info = meta instanceof Mapper ? ((Mapper) meta).toMap() : meta;
+        String type = getMetaType(info, null);
+        Meta.Factory factory = metaFactories.resolve(type);
+        assert factory != null : "meta type not support: " + type;
+        return factory == null ? null : factory.parseMeta(info);
+    }
+
+    //
+    //  Document
+    //
+
+    @Override
+    public void setDocumentFactory(String type, Document.Factory factory) {
+        documentFactories.put(type, factory);
+    }
+
+    @Override
+    public Document.Factory getDocumentFactory(String type) {
+        return documentFactories.get(type);
+    }
+
+    @Override
+    public Document createDocument(String type, String data, TransportableData signature) {
+        Document.Factory factory = documentFactories.resolve(type);
+        assert factory != null : "document type not support: " + type;
+        return factory == null ? null : factory.createDocument(data, signature);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Document parseDocument(Object doc) {
+        if (doc instanceof Map) {
+            return parseDocument((Map<String, Object>) doc);
+        } else if (doc == null) {
+            return null;
+        }
+        Map<String, Object> info = Wrapper.getMap(doc);
+        if (info == null) {
+            assert false : "document error: " + doc;
+            return null;
+        }
+        return parseDocument(info);
+    }
+
+    @Override
+    public Document parseDocument(Map<String, Object> doc) {
+        if (doc == null) {
+            return null;
+        } else if (doc instanceof Document) {
+            return (Document) doc;
+        }
+        Map<String, Object> info = doc instanceof Mapper ? ((Mapper) doc).toMap() : doc;
+        String type = getDocumentType(info, null);
+        Document.Factory factory = documentFactories.resolve(type);
+        assert factory != null : "document type not support: " + type;
+        return factory == null ? null : factory.parseDocument(info);
+    }
+
+}
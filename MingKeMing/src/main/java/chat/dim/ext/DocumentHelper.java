@@ -30,6 +30,8 @@
  */
 package chat.dim.ext;
 
+import java.util.Map;
+
 import chat.dim.protocol.Document;
 import chat.dim.protocol.TransportableData;
 
@@ -42,4 +44,11 @@ public interface DocumentHelper {
 
     Document parseDocument(Object doc);
 
+    /**
+     *  Parse document info (Map or Mapper)
+     */
+    default Document parseDocument(Map<String, Object> doc) {
+        return parseDocument((Object) doc);
+    }
+
 }
@@ -0,0 +1,196 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.ext;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import chat.dim.protocol.Address;
+import chat.dim.protocol.ID;
+import chat.dim.protocol.Meta;
+import chat.dim.type.FingerprintFilter;
+
+/**
+ *  ID/Address helpers with negative cache
+ *  <p>
+ *      Strings failed to parse are remembered in a fingerprint filter,
+ *      so repeated garbage returns null without parsing again;
+ *      the filter has fixed size, old entries are overwritten by new ones.
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  // after the real helpers installed
+ *  new GuardedAccountHelper(65536).install();
+ *  </pre></blockquote>
+ */
+public class GuardedAccountHelper implements AddressHelper, IDHelper {
+
+    private final AddressHelper addressHelper;
+    private final IDHelper idHelper;
+
+    private final FingerprintFilter badAddresses;
+    private final FingerprintFilter badIdentifiers;
+
+    private final LongAdder failures = new LongAdder();
+
+    public GuardedAccountHelper(AddressHelper addressHelper, IDHelper idHelper, int capacity) {
+        super();
+        this.addressHelper = addressHelper;
+        this.idHelper = idHelper;
+        this.badAddresses = new FingerprintFilter(capacity);
+        this.badIdentifiers = new FingerprintFilter(capacity);
+    }
+
+    /**
+     *  Wrap the current helpers
+     *
+     * @param capacity - max rejected strings remembered for each kind
+     */
+    public GuardedAccountHelper(int capacity) {
+        this(SharedAccountExtensions.addressHelper, SharedAccountExtensions.idHelper, capacity);
+    }
+
+    /**
+     *  Set this as ID/Address helpers
+     */
+    public void install() {
+        SharedAccountExtensions.addressHelper = this;
+        SharedAccountExtensions.idHelper = this;
+    }
+
+    //
+    //  Statistics
+    //
+
+    /**
+     *  Count of strings returned null by the filters
+     */
+    public long getRejectedCount() {
+        return badAddresses.getHitCount() + badIdentifiers.getHitCount();
+    }
+
+    /**
+     *  Count of strings failed in parsing (then added to the filters)
+     */
+    public long getFailedCount() {
+        return failures.sum();
+    }
+
+    public FingerprintFilter getAddressFilter() {
+        return badAddresses;
+    }
+
+    public FingerprintFilter getIDFilter() {
+        return badIdentifiers;
+    }
+
+    //
+    //  Address
+    //
+
+    @Override
+    public void setAddressFactory(Address.Factory factory) {
+        addressHelper.setAddressFactory(factory);
+        badAddresses.clear();
+        // IDs may be rejected for their addresses
+        badIdentifiers.clear();
+    }
+
+    @Override
+    public Address.Factory getAddressFactory() {
+        return addressHelper.getAddressFactory();
+    }
+
+    @Override
+    public Address parseAddress(Object address) {
+        if (!(address instanceof String)) {
+            return addressHelper.parseAddress(address);
+        }
+        String string = (String) address;
+        if (badAddresses.contains(string)) {
+            return null;
+        }
+        Address result = addressHelper.parseAddress(string);
+        if (result == null) {
+            failures.increment();
+            badAddresses.add(string);
+        }
+        return result;
+    }
+
+    @Override
+    public Address generateAddress(Meta meta, int network) {
+        return addressHelper.generateAddress(meta, network);
+    }
+
+    //
+    //  ID
+    //
+
+    @Override
+    public void setIDFactory(ID.Factory factory) {
+        idHelper.setIDFactory(factory);
+        badIdentifiers.clear();
+    }
+
+    @Override
+    public ID.Factory getIDFactory() {
+        return idHelper.getIDFactory();
+    }
+
+    @Override
+    public ID parseID(Object identifier) {
+        if (identifier instanceof String) {
+            return parseID((String) identifier);
+        }
+        return idHelper.parseID(identifier);
+    }
+
+    @Override
+    public ID parseID(String identifier) {
+        if (identifier == null) {
+            return null;
+        } else if (badIdentifiers.contains(identifier)) {
+            return null;
+        }
+        ID result = idHelper.parseID(identifier);
+        if (result == null) {
+            failures.increment();
+            badIdentifiers.add(identifier);
+        }
+        return result;
+    }
+
+    @Override
+    public ID createID(String name, Address address, String terminal) {
+        return idHelper.createID(name, address, terminal);
+    }
+
+    @Override
+    public ID generateID(Meta meta, int network) {
+        return idHelper.generateID(meta, network);
+    }
+
+}
@@ -41,6 +41,17 @@ public interface IDHelper {
 
     ID parseID(Object identifier);
 
+    /**
+     *  Parse ID string
+     *  <p>
+     *      Typed entrance for the most common input,
+     *      override it to skip the type checking of 'parseID(Object)'.
+     *  </p>
+     */
+    default ID parseID(String identifier) {
+        return parseID((Object) identifier);
+    }
+
     ID createID(String name, Address address, String terminal);
 
     ID generateID(Meta meta, int network);
@@ -30,6 +30,8 @@
  */
 package chat.dim.ext;
 
+import java.util.Map;
+
 import chat.dim.protocol.Meta;
 import chat.dim.protocol.SignKey;
 import chat.dim.protocol.TransportableData;
@@ -46,4 +48,11 @@ public interface MetaHelper {
 
     Meta parseMeta(Object meta);
 
+    /**
+     *  Parse meta info (Map or Mapper)
+     */
+    default Meta parseMeta(Map<String, Object> meta) {
+        return parseMeta((Object) meta);
+    }
+
 }
@@ -0,0 +1,292 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.metrics;
+
+import java.util.Map;
+
+import chat.dim.ext.AddressHelper;
+import chat.dim.ext.DocumentHelper;
+import chat.dim.ext.IDHelper;
+import chat.dim.ext.MetaHelper;
+import chat.dim.ext.SharedAccountExtensions;
+import chat.dim.protocol.Address;
+import chat.dim.protocol.Document;
+import chat.dim.protocol.ID;
+import chat.dim.protocol.Meta;
+import chat.dim.protocol.SignKey;
+import chat.dim.protocol.TransportableData;
+import chat.dim.protocol.VerifyKey;
+
+/**
+ *  Account helpers with metrics
+ *  <p>
+ *      Times parsing of Address, ID, Meta &amp; Document,
+ *      a parse with non-empty input but no result is counted as failure.
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  // after the real helpers installed
+ *  new MeteredAccountHelper().install();
+ *  </pre></blockquote>
+ */
+public class MeteredAccountHelper implements AddressHelper, IDHelper, MetaHelper, DocumentHelper {
+
+    private final AddressHelper addressHelper;
+    private final IDHelper idHelper;
+    private final MetaHelper metaHelper;
+    private final DocumentHelper docHelper;
+
+    private final Metric addressParse = Metrics.getMetric("account.address.parse");
+    private final Metric idParse = Metrics.getMetric("account.id.parse");
+    private final Metric metaParse = Metrics.getMetric("account.meta.parse");
+    private final Metric docParse = Metrics.getMetric("account.document.parse");
+
+    public MeteredAccountHelper(AddressHelper addressHelper, IDHelper idHelper,
+                                MetaHelper metaHelper, DocumentHelper docHelper) {
+        super();
+        this.addressHelper = addressHelper;
+        this.idHelper = idHelper;
+        this.metaHelper = metaHelper;
+        this.docHelper = docHelper;
+    }
+
+    /**
+     *  Wrap the current helpers
+     */
+    public MeteredAccountHelper() {
+        this(SharedAccountExtensions.addressHelper, SharedAccountExtensions.idHelper,
+                SharedAccountExtensions.metaHelper, SharedAccountExtensions.docHelper);
+    }
+
+    /**
+     *  Set this as account helpers
+     */
+    public void install() {
+        SharedAccountExtensions.addressHelper = this;
+        SharedAccountExtensions.idHelper = this;
+        SharedAccountExtensions.metaHelper = this;
+        SharedAccountExtensions.docHelper = this;
+    }
+
+    //
+    //  Address
+    //
+
+    @Override
+    public void setAddressFactory(Address.Factory factory) {
+        addressHelper.setAddressFactory(factory);
+    }
+
+    @Override
+    public Address.Factory getAddressFactory() {
+        return addressHelper.getAddressFactory();
+    }
+
+    @Override
+    public Address parseAddress(Object address) {
+        if (address == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Address result = addressHelper.parseAddress(address);
+            ok = result != null;
+            return result;
+        } finally {
+            addressParse.record(System.nanoTime() - start, ok);
+        }
+    }
+
+    @Override
+    public Address generateAddress(Meta meta, int network) {
+        return addressHelper.generateAddress(meta, network);
+    }
+
+    //
+    //  ID
+    //
+
+    @Override
+    public void setIDFactory(ID.Factory factory) {
+        idHelper.setIDFactory(factory);
+    }
+
+    @Override
+    public ID.Factory getIDFactory() {
+        return idHelper.getIDFactory();
+    }
+
+    @Override
+    public ID parseID(Object identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            ID result = idHelper.parseID(identifier);
+            ok = result != null;
+            return result;
+        } finally {
+            idParse.record(System.nanoTime() - start, ok);
+        }
+    }
+
+    @Override
+    public ID parseID(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            ID result = idHelper.parseID(identifier);
+            ok = result != null;
+            return result;
+        } finally {
+            idParse.record(System.nanoTime() - start, ok);
+        }
+    }
+
+    @Override
+    public ID createID(String name, Address address, String terminal) {
+        return idHelper.createID(name, address, terminal);
+    }
+
+    @Override
+    public ID generateID(Meta meta, int network) {
+        return idHelper.generateID(meta, network);
+    }
+
+    //
+    //  Meta
+    //
+
+    @Override
+    public void setMetaFactory(String type, Meta.Factory factory) {
+        metaHelper.setMetaFactory(type, factory);
+    }
+
+    @Override
+    public Meta.Factory getMetaFactory(String type) {
+        return metaHelper.getMetaFactory(type);
+    }
+
+    @Override
+    public Meta createMeta(String type, VerifyKey key, String seed, TransportableData fingerprint) {
+        return metaHelper.createMeta(type, key, seed, fingerprint);
+    }
+
+    @Override
+    public Meta generateMeta(String type, SignKey sKey, String seed) {
+        return metaHelper.generateMeta(type, sKey, seed);
+    }
+
+    @Override
+    public Meta parseMeta(Object meta) {
+        if (meta == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Meta result = metaHelper.parseMeta(meta);
+            ok = result != null;
+            return result;
+        } finally {
+            metaParse.record(System.nanoTime() - start, ok);
+        }
+    }
+
+    @Override
+    public Meta parseMeta(Map<String, Object> meta) {
+        if (meta == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Meta result = metaHelper.parseMeta(meta);
+            ok = result != null;
+            return result;
+        } finally {
+            metaParse.record(System.nanoTime() - start, ok);
+        }
+    }
+
+    //
+    //  Document
+    //
+
+    @Override
+    public void setDocumentFactory(String type, Document.Factory factory) {
+        docHelper.setDocumentFactory(type, factory);
+    }
+
+    @Override
+    public Document.Factory getDocumentFactory(String type) {
+        return docHelper.getDocumentFactory(type);
+    }
+
+    @Override
+    public Document createDocument(String type, String data, TransportableData signature) {
+        return docHelper.createDocument(type, data, signature);
+    }
+
+    @Override
+    public Document parseDocument(Object doc) {
+        if (doc == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Document result = docHelper.parseDocument(doc);
+            ok = result != null;
+            return result;
+        } finally {
+            docParse.record(System.nanoTime() - start, ok);
+        }
+    }
+
+    @Override
+    public Document parseDocument(Map<String, Object> doc) {
+        if (doc == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Document result = docHelper.parseDocument(doc);
+            ok = result != null;
+            return result;
+        } finally {
+            docParse.record(System.nanoTime() - start, ok);
+        }
+    }
+
+}
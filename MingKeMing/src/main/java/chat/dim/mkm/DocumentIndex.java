@@ -0,0 +1,186 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.mkm;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import chat.dim.ext.GeneralAccountHelper;
+import chat.dim.ext.SharedAccountExtensions;
+import chat.dim.protocol.Document;
+import chat.dim.protocol.ID;
+
+/**
+ *  Latest Documents
+ *  <p>
+ *      Keeps only the newest document (by time) for each (ID, type);
+ *      updating is lock-free (CAS), a document not newer than
+ *      the current one is rejected without changing anything.
+ *  </p>
+ *
+ *  <pre>
+ *  Documents are not verified here, check signatures before updating.
+ *  </pre>
+ */
+public class DocumentIndex {
+
+    // ID => (type => document)
+    private final ConcurrentMap<ID, ConcurrentMap<String, AtomicReference<Document>>> documents
+            = new ConcurrentHashMap<>();
+
+    /**
+     *  Get latest document
+     *
+     * @param identifier - entity ID
+     * @param type       - document type
+     * @return null on not found
+     */
+    public Document getDocument(ID identifier, String type) {
+        Map<String, AtomicReference<Document>> table = documents.get(identifier);
+        if (table == null) {
+            return null;
+        }
+        AtomicReference<Document> ref = table.get(type);
+        return ref == null ? null : ref.get();
+    }
+
+    /**
+     *  Get latest documents of all types
+     */
+    public List<Document> getDocuments(ID identifier) {
+        List<Document> array = new ArrayList<>();
+        Map<String, AtomicReference<Document>> table = documents.get(identifier);
+        if (table == null) {
+            return array;
+        }
+        Document doc;
+        for (AtomicReference<Document> ref : table.values()) {
+            doc = ref.get();
+            if (doc != null) {
+                array.add(doc);
+            }
+        }
+        return array;
+    }
+
+    /**
+     *  Update document if newer than the current one
+     *
+     * @param doc - document
+     * @return false on stale
+     */
+    public boolean updateDocument(Document doc) {
+        GeneralAccountHelper helper = SharedAccountExtensions.helper;
+        Map<String, Object> info = doc.toMap();
+        ID did = helper.getDocumentID(info);
+        if (did == null) {
+            assert false : "document ID not found: " + info;
+            return false;
+        }
+        String type = helper.getDocumentType(info, "*");
+        AtomicReference<Document> ref = getReference(did, type);
+        Document old;
+        do {
+            old = ref.get();
+            if (old != null && !isNewer(doc, old)) {
+                return false;
+            }
+        } while (!ref.compareAndSet(old, doc));
+        return true;
+    }
+
+    /**
+     *  Load documents (e.g.: from Document.convert())
+     *
+     * @param array - documents
+     * @return count of documents accepted
+     */
+    public int loadDocuments(Iterable<Document> array) {
+        int count = 0;
+        for (Document doc : array) {
+            if (doc != null && updateDocument(doc)) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     *  Remove all documents of the entity
+     *  <p>
+     *      References are cleared but kept in the table,
+     *      so an update racing with this will not be lost.
+     *  </p>
+     */
+    public void removeDocuments(ID identifier) {
+        Map<String, AtomicReference<Document>> table = documents.get(identifier);
+        if (table == null) {
+            return;
+        }
+        for (AtomicReference<Document> ref : table.values()) {
+            ref.set(null);
+        }
+    }
+
+    private AtomicReference<Document> getReference(ID identifier, String type) {
+        ConcurrentMap<String, AtomicReference<Document>> table = documents.get(identifier);
+        if (table == null) {
+            table = new ConcurrentHashMap<>(4);
+            ConcurrentMap<String, AtomicReference<Document>> exists = documents.putIfAbsent(identifier, table);
+            if (exists != null) {
+                table = exists;
+            }
+        }
+        AtomicReference<Document> ref = table.get(type);
+        if (ref == null) {
+            ref = new AtomicReference<>();
+            AtomicReference<Document> exists = table.putIfAbsent(type, ref);
+            if (exists != null) {
+                ref = exists;
+            }
+        }
+        return ref;
+    }
+
+    /**
+     *  Check whether the document is newer than the old one;
+     *  document without time is older than any one with time
+     */
+    protected boolean isNewer(Document doc, Document old) {
+        Date newTime = doc.getTime();
+        if (newTime == null) {
+            return false;
+        }
+        Date oldTime = old.getTime();
+        return oldTime == null || newTime.after(oldTime);
+    }
+
+}
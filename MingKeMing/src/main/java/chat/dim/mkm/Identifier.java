@@ -179,14 +179,14 @@ public final class Identifier extends ConstantString implements ID {
     }
 
     public static String concat(String name, Address address, String terminal) {
-        String string = address.toString();
-        if (name != null && !name.isEmpty()) {
-            string = name + "@" + string;
+        if (name != null && name.isEmpty()) {
+            name = null;
         }
-        if (terminal != null && !terminal.isEmpty()) {
-            string = string + "/" + terminal;
+        if (terminal != null && terminal.isEmpty()) {
+            terminal = null;
         }
-        return string;
+        // JDK specific, see 'src/main/java17'
+        return IdentifierString.concat(name, address.toString(), terminal);
     }
 
 }
@@ -0,0 +1,69 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.mkm;
+
+/**
+ *  ID string builder (Java 8)
+ *  <p>
+ *      Joins all parts in one sized builder,
+ *      instead of one StringBuilder for each '+'.
+ *  </p>
+ */
+final class IdentifierString {
+    private IdentifierString() {
+        throw new AssertionError("Utility class cannot be instantiated");
+    }
+
+    /**
+     *  Build "name@address/terminal"
+     *
+     * @param name     - null for none
+     * @param address  - address string
+     * @param terminal - null for none
+     */
+    static String concat(String name, String address, String terminal) {
+        if (name == null && terminal == null) {
+            return address;
+        }
+        int size = address.length();
+        if (name != null) {
+            size += name.length() + 1;
+        }
+        if (terminal != null) {
+            size += terminal.length() + 1;
+        }
+        StringBuilder sb = new StringBuilder(size);
+        if (name != null) {
+            sb.append(name).append('@');
+        }
+        sb.append(address);
+        if (terminal != null) {
+            sb.append('/').append(terminal);
+        }
+        return sb.toString();
+    }
+
+}
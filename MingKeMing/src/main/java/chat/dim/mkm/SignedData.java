@@ -0,0 +1,115 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.mkm;
+
+import java.util.Map;
+
+import chat.dim.format.JSON;
+import chat.dim.format.UTF8;
+import chat.dim.protocol.SignKey;
+import chat.dim.protocol.VerifyKey;
+
+/**
+ *  Signed Data for TAI
+ *  <p>
+ *      Keep the exact bytes to be signed together with the 'data' string,
+ *      so verifying and re-signing need not encode them again;
+ *      a document should drop it when any property changed.
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  // load
+ *  signed = new SignedData(doc.getString("data"));
+ *  ok = signed.verify(metaKey, signature);
+ *
+ *  // update
+ *  signed = SignedData.encode(properties);
+ *  signature = signed.sign(sKey);
+ *  doc.put("data", signed.toString());
+ *  </pre></blockquote>
+ */
+public final class SignedData {
+
+    private final String data;  // JSON string
+    private byte[] bytes;       // UTF-8 of data
+
+    public SignedData(String data) {
+        this(data, null);
+    }
+
+    private SignedData(String data, byte[] bytes) {
+        super();
+        assert data != null : "signed data should not be empty";
+        this.data = data;
+        this.bytes = bytes;
+    }
+
+    /**
+     *  Encode properties
+     *
+     * @param properties - document properties
+     * @return signed data with bytes
+     */
+    public static SignedData encode(Map<String, Object> properties) {
+        byte[] utf8 = JSON.encodeBytes(properties);
+        return new SignedData(UTF8.decode(utf8), utf8);
+    }
+
+    /**
+     *  Get the exact bytes to be signed
+     *  <p>
+     *      (shared buffer, should not be modified)
+     *  </p>
+     *
+     * @return UTF-8 encoded data
+     */
+    public byte[] getBytes() {
+        byte[] utf8 = bytes;
+        if (utf8 == null) {
+            utf8 = UTF8.encode(data);
+            bytes = utf8;
+        }
+        return utf8;
+    }
+
+    public boolean verify(VerifyKey key, byte[] signature) {
+        return key.verify(getBytes(), signature);
+    }
+
+    public byte[] sign(SignKey key) {
+        return key.sign(getBytes());
+    }
+
+    public boolean matches(String other) {
+        return data.equals(other);
+    }
+
+    @Override
+    public String toString() {
+        return data;
+    }
+
+}
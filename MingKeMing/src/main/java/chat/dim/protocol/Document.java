@@ -107,6 +107,9 @@ public interface Document extends TAI, Mapper {
     static Document parse(Object doc) {
         return SharedAccountExtensions.docHelper.parseDocument(doc);
     }
+    static Document parse(Map<String, Object> doc) {
+        return SharedAccountExtensions.docHelper.parseDocument(doc);
+    }
 
     static Factory getFactory(String type) {
         return SharedAccountExtensions.docHelper.getDocumentFactory(type);
@@ -139,6 +139,9 @@ public interface ID extends Stringer {
     static ID parse(Object identifier) {
         return SharedAccountExtensions.idHelper.parseID(identifier);
     }
+    static ID parse(String identifier) {
+        return SharedAccountExtensions.idHelper.parseID(identifier);
+    }
     static ID create(String name, Address address, String terminal) {
         return SharedAccountExtensions.idHelper.createID(name, address, terminal);
     }
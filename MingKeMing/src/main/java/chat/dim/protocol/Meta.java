@@ -132,6 +132,9 @@ public interface Meta extends Mapper {
     static Meta parse(Object meta) {
         return SharedAccountExtensions.metaHelper.parseMeta(meta);
     }
+    static Meta parse(Map<String, Object> meta) {
+        return SharedAccountExtensions.metaHelper.parseMeta(meta);
+    }
 
     static Factory getFactory(String type) {
         return SharedAccountExtensions.metaHelper.getMetaFactory(type);
@@ -55,6 +55,10 @@ public interface TAI {
 
     /**
      *  Verify 'data' and 'signature' with public key
+     *  <p>
+     *      (the signed bytes of 'data' can be kept in a 'SignedData',
+     *       and reused until any property changed)
+     *  </p>
      *
      * @param metaKey - public key in meta.key
      * @return true on signature matched
@@ -0,0 +1,95 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.ext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import chat.dim.protocol.Meta;
+import chat.dim.protocol.SignKey;
+import chat.dim.protocol.TransportableData;
+import chat.dim.protocol.VerifyKey;
+
+public class BaseAccountHelperTest {
+
+    private BaseAccountHelper helper;
+
+    private final Meta.Factory[] used = new Meta.Factory[1];
+
+    private Meta.Factory newFactory() {
+        return new Meta.Factory() {
+            @Override
+            public Meta createMeta(VerifyKey pKey, String seed, TransportableData fingerprint) {
+                used[0] = this;
+                return null;
+            }
+
+            @Override
+            public Meta generateMeta(SignKey sKey, String seed) {
+                used[0] = this;
+                return null;
+            }
+
+            @Override
+            public Meta parseMeta(Map<String, Object> meta) {
+                used[0] = this;
+                return null;
+            }
+        };
+    }
+
+    @Before
+    public void setUp() {
+        helper = new BaseAccountHelper();
+    }
+
+    @Test
+    public void testMetaWildcard() {
+        Meta.Factory any = newFactory();
+        Meta.Factory mkm = newFactory();
+        helper.setMetaFactory("*", any);
+        helper.setMetaFactory("1", mkm);
+
+        helper.createMeta("1", null, "moky", null);
+        Assert.assertSame(mkm, used[0]);
+        helper.createMeta("2", null, "moky", null);
+        Assert.assertSame(any, used[0]);
+        helper.generateMeta("4", null, "moky");
+        Assert.assertSame(any, used[0]);
+
+        Map<String, Object> info = new HashMap<>();
+        info.put("type", "5");
+        helper.parseMeta(info);
+        Assert.assertSame(any, used[0]);
+        // registered type only
+        Assert.assertNull(helper.getMetaFactory("2"));
+    }
+
+}
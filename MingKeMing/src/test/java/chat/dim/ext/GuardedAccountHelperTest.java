@@ -0,0 +1,186 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.ext;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import chat.dim.mkm.BroadcastAddress;
+import chat.dim.mkm.Identifier;
+import chat.dim.protocol.Address;
+import chat.dim.protocol.EntityType;
+import chat.dim.protocol.ID;
+import chat.dim.protocol.Meta;
+
+public class GuardedAccountHelperTest {
+
+    /**
+     *  Address factory accepting only the given strings
+     */
+    static class TestAddressFactory implements Address.Factory {
+
+        private final Set<String> accepted = new HashSet<>();
+
+        TestAddressFactory(String... addresses) {
+            for (String item : addresses) {
+                accepted.add(item);
+            }
+        }
+
+        @Override
+        public Address generateAddress(Meta meta, int network) {
+            return null;
+        }
+
+        @Override
+        public Address parseAddress(String address) {
+            return accepted.contains(address) ? new BroadcastAddress(address, EntityType.USER) : null;
+        }
+    }
+
+    static class TestAddressHelper implements AddressHelper {
+
+        private Address.Factory factory;
+
+        @Override
+        public void setAddressFactory(Address.Factory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public Address.Factory getAddressFactory() {
+            return factory;
+        }
+
+        @Override
+        public Address parseAddress(Object address) {
+            return address instanceof String ? factory.parseAddress((String) address) : null;
+        }
+
+        @Override
+        public Address generateAddress(Meta meta, int network) {
+            return null;
+        }
+    }
+
+    /**
+     *  Parse "name@address" with the address helper
+     */
+    static class TestIDHelper implements IDHelper {
+
+        private final AddressHelper addressHelper;
+
+        TestIDHelper(AddressHelper addressHelper) {
+            this.addressHelper = addressHelper;
+        }
+
+        @Override
+        public void setIDFactory(ID.Factory factory) {
+        }
+
+        @Override
+        public ID.Factory getIDFactory() {
+            return null;
+        }
+
+        @Override
+        public ID parseID(Object identifier) {
+            if (!(identifier instanceof String)) {
+                return null;
+            }
+            String string = (String) identifier;
+            int pos = string.indexOf('@');
+            String name = pos < 0 ? null : string.substring(0, pos);
+            Address address = addressHelper.parseAddress(string.substring(pos + 1));
+            return address == null ? null : new Identifier(string, name, address, null);
+        }
+
+        @Override
+        public ID createID(String name, Address address, String terminal) {
+            return null;
+        }
+
+        @Override
+        public ID generateID(Meta meta, int network) {
+            return null;
+        }
+    }
+
+    private GuardedAccountHelper helper;
+
+    @Before
+    public void setUp() {
+        TestAddressHelper addressHelper = new TestAddressHelper();
+        addressHelper.setAddressFactory(new TestAddressFactory());
+        // the ID helper parses addresses through the guarded helper
+        final GuardedAccountHelper[] guarded = new GuardedAccountHelper[1];
+        AddressHelper indirect = new TestAddressHelper() {
+            @Override
+            public Address parseAddress(Object address) {
+                return guarded[0].parseAddress(address);
+            }
+        };
+        guarded[0] = new GuardedAccountHelper(addressHelper, new TestIDHelper(indirect), 64);
+        helper = guarded[0];
+    }
+
+    @Test
+    public void testRejected() {
+        Assert.assertNull(helper.parseID("moky@anywhere"));
+        Assert.assertEquals(2, helper.getFailedCount());
+        Assert.assertNull(helper.parseID("moky@anywhere"));
+        Assert.assertNull(helper.parseAddress("anywhere"));
+        // not parsed again
+        Assert.assertEquals(2, helper.getFailedCount());
+        Assert.assertEquals(2, helper.getRejectedCount());
+    }
+
+    @Test
+    public void testAddressFactoryChanged() {
+        Assert.assertNull(helper.parseID("moky@anywhere"));
+        Assert.assertNull(helper.parseAddress("anywhere"));
+        helper.setAddressFactory(new TestAddressFactory("anywhere"));
+        Assert.assertNotNull(helper.parseAddress("anywhere"));
+        ID identifier = helper.parseID("moky@anywhere");
+        Assert.assertNotNull(identifier);
+        Assert.assertEquals("moky@anywhere", identifier.toString());
+    }
+
+    @Test
+    public void testIDFactoryChanged() {
+        Assert.assertNull(helper.parseID("moky@anywhere"));
+        helper.getAddressFilter().clear();
+        helper.setIDFactory(null);
+        // address still rejected by the factory, parsed again
+        Assert.assertNull(helper.parseID("moky@anywhere"));
+        Assert.assertEquals(4, helper.getFailedCount());
+    }
+
+}
@@ -0,0 +1,416 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.ext;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import chat.dim.mkm.BroadcastAddress;
+import chat.dim.mkm.Identifier;
+import chat.dim.protocol.Address;
+import chat.dim.protocol.EntityType;
+import chat.dim.protocol.ID;
+import chat.dim.protocol.Meta;
+import chat.dim.protocol.PrivateKey;
+import chat.dim.protocol.PublicKey;
+import chat.dim.protocol.SignKey;
+import chat.dim.protocol.TransportableData;
+import chat.dim.protocol.VerifyKey;
+import chat.dim.type.BoundedCache;
+import chat.dim.type.Dictionary;
+
+/**
+ *  Parse, sign and verify through the shared helpers with virtual threads (JDK 21+),
+ *  threads pinned to their carriers are caught by JFR event 'jdk.VirtualThreadPinned'.
+ */
+public class VirtualThreadTest {
+
+    static final int TASKS = 10000;
+    static final int USERS = 512;
+
+    static final String ALGORITHM = "ECC";
+    static final String SIGNATURE = "SHA256withECDSA";
+
+    private static String encode(byte[] data) {
+        return Base64.getEncoder().encodeToString(data);
+    }
+
+    private static byte[] decode(String data) {
+        return Base64.getDecoder().decode(data);
+    }
+
+    /**
+     *  EC public key with JCA
+     */
+    static class ECPublicKey extends Dictionary implements PublicKey {
+
+        private final java.security.PublicKey key;
+
+        ECPublicKey(Map<String, Object> dict) throws GeneralSecurityException {
+            super(dict);
+            X509EncodedKeySpec spec = new X509EncodedKeySpec(decode(getString("data")));
+            key = KeyFactory.getInstance("EC").generatePublic(spec);
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return getString("algorithm");
+        }
+
+        @Override
+        public TransportableData getData() {
+            return null;
+        }
+
+        @Override
+        public boolean verify(byte[] data, byte[] signature) {
+            try {
+                Signature verifier = Signature.getInstance(SIGNATURE);
+                verifier.initVerify(key);
+                verifier.update(data);
+                return verifier.verify(signature);
+            } catch (GeneralSecurityException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public boolean matchSignKey(SignKey sKey) {
+            return KeyMatcher.matchAsymmetricKeys(sKey, this);
+        }
+    }
+
+    /**
+     *  EC private key with JCA, public key data kept in "public"
+     */
+    static class ECPrivateKey extends Dictionary implements PrivateKey {
+
+        private final java.security.PrivateKey key;
+
+        ECPrivateKey(Map<String, Object> dict) throws GeneralSecurityException {
+            super(dict);
+            PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(decode(getString("data")));
+            key = KeyFactory.getInstance("EC").generatePrivate(spec);
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return getString("algorithm");
+        }
+
+        @Override
+        public TransportableData getData() {
+            return null;
+        }
+
+        @Override
+        public PublicKey getPublicKey() {
+            Map<String, Object> info = new HashMap<>();
+            info.put("algorithm", ALGORITHM);
+            info.put("data", getString("public"));
+            return PublicKey.parse(info);
+        }
+
+        @Override
+        public byte[] sign(byte[] data) {
+            try {
+                Signature signer = Signature.getInstance(SIGNATURE);
+                signer.initSign(key);
+                signer.update(data);
+                return signer.sign();
+            } catch (GeneralSecurityException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     *  Meta with public key in "key"
+     */
+    static class TestMeta extends Dictionary implements Meta {
+
+        TestMeta(Map<String, Object> dict) {
+            super(dict);
+        }
+
+        @Override
+        public String getType() {
+            return getString("type");
+        }
+
+        @Override
+        public VerifyKey getPublicKey() {
+            return PublicKey.parse(get("key"));
+        }
+
+        @Override
+        public String getSeed() {
+            return getString("seed");
+        }
+
+        @Override
+        public TransportableData getFingerprint() {
+            return null;
+        }
+
+        @Override
+        public boolean isValid() {
+            return getPublicKey() != null;
+        }
+
+        @Override
+        public Address generateAddress(int network) {
+            return null;
+        }
+    }
+
+    private Map<String, Object> privateInfo;
+    private Map<String, Object> publicInfo;
+
+    @Before
+    public void setUp() throws GeneralSecurityException {
+        BaseCryptoHelper cryptoHelper = new BaseCryptoHelper();
+        cryptoHelper.install();
+        new CachedKeyHelper(USERS, BoundedCache.SOFT).install();
+        PrivateKey.setFactory(ALGORITHM, new PrivateKey.Factory() {
+            @Override
+            public PrivateKey generatePrivateKey() {
+                return null;
+            }
+
+            @Override
+            public PrivateKey parsePrivateKey(Map<String, Object> key) {
+                try {
+                    return new ECPrivateKey(key);
+                } catch (GeneralSecurityException e) {
+                    return null;
+                }
+            }
+        });
+        PublicKey.setFactory(ALGORITHM, new PublicKey.Factory() {
+            @Override
+            public PublicKey parsePublicKey(Map<String, Object> key) {
+                try {
+                    return new ECPublicKey(key);
+                } catch (GeneralSecurityException e) {
+                    return null;
+                }
+            }
+        });
+
+        BaseAccountHelper accountHelper = new BaseAccountHelper();
+        accountHelper.install();
+        new GuardedAccountHelper(accountHelper, accountHelper, USERS).install();
+        Address.setFactory(new Address.Factory() {
+            @Override
+            public Address generateAddress(Meta meta, int network) {
+                return null;
+            }
+
+            @Override
+            public Address parseAddress(String address) {
+                return address.startsWith("address") ? new BroadcastAddress(address, EntityType.USER) : null;
+            }
+        });
+        ID.setFactory(new ID.Factory() {
+            @Override
+            public ID generateID(Meta meta, int network) {
+                return null;
+            }
+
+            @Override
+            public ID createID(String name, Address address, String terminal) {
+                return null;
+            }
+
+            @Override
+            public ID parseID(String identifier) {
+                int pos = identifier.indexOf('@');
+                Address address = Address.parse(identifier.substring(pos + 1));
+                if (address == null) {
+                    return null;
+                }
+                String name = pos < 0 ? null : identifier.substring(0, pos);
+                return new Identifier(identifier, name, address, null);
+            }
+        });
+        Meta.setFactory("1", new Meta.Factory() {
+            @Override
+            public Meta createMeta(VerifyKey pKey, String seed, TransportableData fingerprint) {
+                return null;
+            }
+
+            @Override
+            public Meta generateMeta(SignKey sKey, String seed) {
+                return null;
+            }
+
+            @Override
+            public Meta parseMeta(Map<String, Object> meta) {
+                return new TestMeta(meta);
+            }
+        });
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(256);
+        KeyPair pair = generator.generateKeyPair();
+        privateInfo = new HashMap<>();
+        privateInfo.put("algorithm", ALGORITHM);
+        privateInfo.put("data", encode(pair.getPrivate().getEncoded()));
+        privateInfo.put("public", encode(pair.getPublic().getEncoded()));
+        publicInfo = new HashMap<>();
+        publicInfo.put("algorithm", ALGORITHM);
+        publicInfo.put("data", encode(pair.getPublic().getEncoded()));
+    }
+
+    private Callable<Boolean> newTask(final int index) {
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                int user = index % USERS;
+                // rejected IDs are filtered
+                if (ID.parse("user" + user + "@unknown" + user) != null) {
+                    return false;
+                }
+                ID identifier = ID.parse("user" + user + "@address" + user);
+                if (identifier == null || !identifier.getAddress().toString().equals("address" + user)) {
+                    return false;
+                }
+                Map<String, Object> info = new HashMap<>();
+                info.put("type", "1");
+                info.put("seed", "user" + user);
+                info.put("key", new HashMap<>(publicInfo));
+                Meta meta = Meta.parse(info);
+                if (meta == null || !meta.isValid()) {
+                    return false;
+                }
+                byte[] data = (identifier + "-" + index).getBytes(StandardCharsets.UTF_8);
+                PrivateKey sKey = PrivateKey.parse(new HashMap<>(privateInfo));
+                byte[] signature = sKey.sign(data);
+                PublicKey pKey = PublicKey.parse(new HashMap<>(publicInfo));
+                return pKey.verify(data, signature) && meta.getPublicKey().verify(data, signature)
+                        && pKey.matchSignKey(sKey);
+            }
+        };
+    }
+
+    private void runTasks(ExecutorService executor) throws Exception {
+        List<Future<Boolean>> results = new ArrayList<>(TASKS);
+        try {
+            for (int i = 0; i < TASKS; ++i) {
+                results.add(executor.submit(newTask(i)));
+            }
+            for (Future<Boolean> future : results) {
+                Assert.assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // JDK < 21
+            return null;
+        }
+    }
+
+    private static List<RecordedEvent> readEvents(Recording recording, String name) throws IOException {
+        Path file = Files.createTempFile("pinned", ".jfr");
+        try {
+            recording.dump(file);
+            List<RecordedEvent> events = new ArrayList<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (name.equals(event.getEventType().getName())) {
+                    events.add(event);
+                }
+            }
+            return events;
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testPlatformThreads() throws Exception {
+        runTasks(Executors.newFixedThreadPool(16));
+    }
+
+    @Test
+    public void testNoPinnedThreads() throws Exception {
+        ExecutorService executor = newVirtualThreadExecutor();
+        Assume.assumeTrue("virtual threads not supported", executor != null);
+
+        String name = "jdk.VirtualThreadPinned";
+        Recording recording = new Recording();
+        try {
+            // report every pinning, not only the long ones
+            recording.enable(name).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            runTasks(executor);
+            recording.stop();
+            List<RecordedEvent> events = readEvents(recording, name);
+            Assert.assertTrue("virtual thread pinned:\n" + events, events.isEmpty());
+        } finally {
+            recording.close();
+        }
+    }
+
+}
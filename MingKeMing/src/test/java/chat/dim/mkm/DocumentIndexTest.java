@@ -0,0 +1,213 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.mkm;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import chat.dim.data.Converter;
+import chat.dim.ext.BaseAccountHelper;
+import chat.dim.protocol.Address;
+import chat.dim.protocol.Document;
+import chat.dim.protocol.ID;
+import chat.dim.protocol.Meta;
+
+public class DocumentIndexTest {
+
+    private DocumentIndex index;
+
+    @Before
+    public void setUp() {
+        BaseAccountHelper helper = new BaseAccountHelper();
+        helper.install();
+        helper.setIDFactory(new ID.Factory() {
+            @Override
+            public ID generateID(Meta meta, int network) {
+                return null;
+            }
+
+            @Override
+            public ID createID(String name, Address address, String terminal) {
+                return null;
+            }
+
+            @Override
+            public ID parseID(String identifier) {
+                return new Identifier(identifier, null, null, null);
+            }
+        });
+        index = new DocumentIndex();
+    }
+
+    /**
+     *  Document backed by a map, time in seconds
+     */
+    private static Document doc(String did, String type, Object time) {
+        final Map<String, Object> info = new HashMap<>();
+        info.put("did", did);
+        info.put("type", type);
+        if (time != null) {
+            info.put("time", time);
+        }
+        return (Document) Proxy.newProxyInstance(Document.class.getClassLoader(), new Class[]{Document.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        String name = method.getName();
+                        if ("toMap".equals(name)) {
+                            return info;
+                        } else if ("getTime".equals(name)) {
+                            return Converter.getDateTime(info.get("time"), null);
+                        } else if ("toString".equals(name)) {
+                            return info.toString();
+                        } else if ("equals".equals(name)) {
+                            return proxy == args[0];
+                        } else if ("hashCode".equals(name)) {
+                            return System.identityHashCode(proxy);
+                        }
+                        return null;
+                    }
+                });
+    }
+
+    private static ID id(String identifier) {
+        return new Identifier(identifier, null, null, null);
+    }
+
+    private static Object timeOf(Document doc) {
+        return doc.toMap().get("time");
+    }
+
+    @Test
+    public void testNewerWins() {
+        Assert.assertTrue(index.updateDocument(doc("moky@address", "visa", 100)));
+        Document newer = doc("moky@address", "visa", 200);
+        Assert.assertTrue(index.updateDocument(newer));
+        Assert.assertSame(newer, index.getDocument(id("moky@address"), "visa"));
+        // other types are kept apart
+        Assert.assertTrue(index.updateDocument(doc("moky@address", "profile", 50)));
+        Assert.assertEquals(2, index.getDocuments(id("moky@address")).size());
+    }
+
+    @Test
+    public void testEqualOrOlderRejected() {
+        Document current = doc("moky@address", "visa", 200);
+        Assert.assertTrue(index.updateDocument(current));
+        Assert.assertFalse(index.updateDocument(doc("moky@address", "visa", 200)));
+        Assert.assertFalse(index.updateDocument(doc("moky@address", "visa", 100)));
+        Assert.assertSame(current, index.getDocument(id("moky@address"), "visa"));
+    }
+
+    @Test
+    public void testWithoutTime() {
+        Document untimed = doc("moky@address", "visa", null);
+        // accepted when there is nothing yet
+        Assert.assertTrue(index.updateDocument(untimed));
+        Assert.assertFalse(index.updateDocument(doc("moky@address", "visa", null)));
+        Assert.assertSame(untimed, index.getDocument(id("moky@address"), "visa"));
+        // any time is newer than no time
+        Assert.assertTrue(index.updateDocument(doc("moky@address", "visa", 1)));
+        Assert.assertFalse(index.updateDocument(doc("moky@address", "visa", null)));
+        Assert.assertEquals(1, timeOf(index.getDocument(id("moky@address"), "visa")));
+    }
+
+    @Test
+    public void testLoadDocuments() {
+        List<Document> array = new ArrayList<>();
+        array.add(doc("moky@address", "visa", 100));
+        array.add(doc("moky@address", "visa", 300));
+        array.add(doc("moky@address", "visa", 200));
+        array.add(null);
+        array.add(doc("hulk@address", "visa", 100));
+        Assert.assertEquals(3, index.loadDocuments(array));
+        Assert.assertEquals(300, timeOf(index.getDocument(id("moky@address"), "visa")));
+        Assert.assertEquals(1, index.getDocuments(id("hulk@address")).size());
+    }
+
+    @Test
+    public void testRemoveDocuments() {
+        index.updateDocument(doc("moky@address", "visa", 200));
+        index.updateDocument(doc("moky@address", "profile", 200));
+        index.removeDocuments(id("moky@address"));
+        Assert.assertNull(index.getDocument(id("moky@address"), "visa"));
+        Assert.assertEquals(0, index.getDocuments(id("moky@address")).size());
+        // older one accepted after removing
+        Assert.assertTrue(index.updateDocument(doc("moky@address", "visa", 100)));
+        Assert.assertEquals(1, index.getDocuments(id("moky@address")).size());
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException {
+        final int threads = 8;
+        final int count = 2000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final AtomicInteger max = new AtomicInteger(0);
+        for (int t = 0; t < threads; ++t) {
+            final long seed = t;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Random random = new Random(seed);
+                    int time;
+                    try {
+                        start.await();
+                        for (int i = 0; i < count; ++i) {
+                            time = 1 + random.nextInt(1000000);
+                            index.updateDocument(doc("moky@address", "visa", time));
+                            while (true) {
+                                int current = max.get();
+                                if (time <= current || max.compareAndSet(current, time)) {
+                                    break;
+                                }
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        Assert.assertEquals(max.get(), timeOf(index.getDocument(id("moky@address"), "visa")));
+    }
+
+}
@@ -0,0 +1,552 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.storage;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import chat.dim.ext.GeneralAccountHelper;
+import chat.dim.ext.SharedAccountExtensions;
+import chat.dim.format.CBOR;
+import chat.dim.format.UTF8;
+import chat.dim.protocol.Document;
+import chat.dim.protocol.ID;
+import chat.dim.protocol.Meta;
+
+/**
+ *  Meta & Document Store
+ *  <p>
+ *      Metas and documents are appended to a record log (CBOR encoded),
+ *      an in-memory index maps entity ID to record location;
+ *      the index is rebuilt by scanning the log on open (no values decoded).
+ *  </p>
+ *
+ *  <pre>
+ *  Meta of an ID never changes, so it is saved once;
+ *  saving a document replaces the previous one with the same (ID, type)
+ *  if newer (by time), the replaced records are removed by compact().
+ *
+ *  The index keeps only 64-bit key hashes and locations in primitive tables
+ *  (16 bytes per slot, 21~43 bytes per entry), the keys stay in the log;
+ *  records found by hash are checked by their keys when read.
+ *  </pre>
+ *
+ *  <blockquote><pre>
+ *  AccountStore store = new AccountStore(new File("accounts.db"), false);
+ *  store.saveMeta(identifier, meta);
+ *  Meta meta = store.loadMeta(identifier);
+ *  </pre></blockquote>
+ */
+public class AccountStore implements Closeable {
+
+    // record kinds
+    public static final int META     = 1;
+    public static final int DOCUMENT = 2;
+
+    // location = offset << 24 | length
+    private static final int LENGTH_BITS = 24;
+    private static final int MAX_LENGTH = (1 << LENGTH_BITS) - 1;
+
+    // document hash = ID hash (high 48 bits) | type hash (low 16 bits)
+    private static final long ID_BITS = ~0xFFFFL;
+
+    private final File file;
+    private final boolean sync;
+    private RecordLog log;
+
+    // guards the log and the tables
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // hash(ID) => location
+    private final LocationTable metas = new LocationTable(1024);
+    // hash(ID) | hash(type) => location
+    private final LocationTable documents = new LocationTable(1024);
+
+    private final AtomicLong staleBytes = new AtomicLong(0);
+
+    /**
+     *  Open store and load index
+     *
+     * @param file - log file
+     * @param sync - force data to disk after each save
+     */
+    public AccountStore(File file, boolean sync) throws IOException {
+        super();
+        this.file = file;
+        this.sync = sync;
+        // remove unfinished compaction
+        Files.deleteIfExists(getCompactingFile().toPath());
+        log = new RecordLog(file, sync);
+        log.recover(new RecordLog.Visitor() {
+            @Override
+            public void visit(int kind, byte[] key, long offset, int length) throws IOException {
+                index(kind, key, location(offset, length));
+            }
+        });
+    }
+
+    protected File getCompactingFile() {
+        return new File(file.getPath() + ".compact");
+    }
+
+    private static long location(long offset, int length) {
+        return (offset << LENGTH_BITS) | length;
+    }
+
+    private static long offsetOf(long location) {
+        return location >>> LENGTH_BITS;
+    }
+
+    private static int lengthOf(long location) {
+        return (int) (location & MAX_LENGTH);
+    }
+
+    // "{ID}\t{type}"
+    private static byte[] documentKey(String identifier, String type) {
+        return UTF8.encode(identifier + '\t' + type);
+    }
+
+    private static int separatorOf(byte[] key) {
+        for (int i = 0; i < key.length; ++i) {
+            if (key[i] == '\t') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private long documentHash(byte[] key, int pos) {
+        long id = documents.hash(key, 0, pos);
+        long type = documents.hash(key, pos + 1, key.length - pos - 1);
+        long hash = (id & ID_BITS) | (type & ~ID_BITS);
+        return hash == 0 ? 1 : hash;
+    }
+
+    // call with write lock (or in constructor)
+    private void index(int kind, byte[] key, long loc) throws IOException {
+        LocationTable table;
+        long hash;
+        if (kind == META) {
+            table = metas;
+            hash = metas.hash(key, 0, key.length);
+        } else if (kind == DOCUMENT) {
+            int pos = separatorOf(key);
+            if (pos < 0) {
+                assert false : "document key error: " + UTF8.decode(key);
+                return;
+            }
+            table = documents;
+            hash = documentHash(key, pos);
+        } else {
+            // unknown kind, ignore
+            return;
+        }
+        store(table, slotOf(table, hash, key), hash, loc);
+    }
+
+    // call with write lock (or in constructor)
+    private void store(LocationTable table, int slot, long hash, long loc) {
+        if (slot < 0) {
+            table.add(hash, loc);
+        } else {
+            // replace
+            staleBytes.addAndGet(lengthOf(table.get(slot)));
+            table.set(slot, loc);
+        }
+    }
+
+    // call with lock, compares record keys only (values not read)
+    private int slotOf(LocationTable table, long hash, byte[] key) throws IOException {
+        int slot = -1;
+        while ((slot = table.find(hash, LocationTable.ALL_BITS, slot)) >= 0) {
+            if (Arrays.equals(key, getLog().readKey(offsetOf(table.get(slot))))) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // call with read lock, locations are changed by compact()
+    private Map<String, Object> find(LocationTable table, long hash, byte[] key) throws IOException {
+        int slot = -1;
+        RecordLog.Record record;
+        while ((slot = table.find(hash, LocationTable.ALL_BITS, slot)) >= 0) {
+            record = read(table.get(slot));
+            if (record != null && Arrays.equals(key, record.getKey())) {
+                return decode(record);
+            }
+        }
+        return null;
+    }
+
+    //
+    //  Statistics
+    //
+
+    public int getMetaCount() {
+        lock.readLock().lock();
+        try {
+            return metas.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     *  Bytes of replaced records, which can be removed by compact()
+     */
+    public long getStaleBytes() {
+        return staleBytes.get();
+    }
+
+    public long getFileSize() {
+        lock.readLock().lock();
+        try {
+            return log == null ? 0 : log.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //
+    //  Read/Write records
+    //
+
+    private long append(int kind, byte[] key, Map<String, Object> info) throws IOException {
+        byte[] value = CBOR.encode(info);
+        int length = RecordLog.HEADER_SIZE + key.length + value.length + RecordLog.TRAILER_SIZE;
+        if (length > MAX_LENGTH) {
+            throw new IOException("record too large: " + UTF8.decode(key) + ", " + length);
+        }
+        long offset = getLog().append(kind, key, value);
+        return location(offset, length);
+    }
+
+    // call with read lock, locations are changed by compact()
+    private RecordLog.Record read(long loc) throws IOException {
+        return getLog().readRecord(offsetOf(loc), lengthOf(loc));
+    }
+
+    // call with lock
+    private RecordLog getLog() throws IOException {
+        RecordLog current = log;
+        if (current == null) {
+            throw new IOException("account store closed: " + file);
+        }
+        return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> decode(RecordLog.Record record) {
+        Object info = CBOR.decode(record.getValue());
+        return info instanceof Map ? (Map<String, Object>) info : null;
+    }
+
+    //
+    //  Meta
+    //
+
+    /**
+     *  Save meta for ID
+     *
+     * @return false if already saved
+     */
+    public boolean saveMeta(ID identifier, Meta meta) throws IOException {
+        byte[] key = UTF8.encode(identifier.toString());
+        long hash = metas.hash(key, 0, key.length);
+        lock.readLock().lock();
+        try {
+            if (slotOf(metas, hash, key) >= 0) {
+                return false;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(metas, hash, key);
+            if (slot >= 0) {
+                return false;
+            }
+            store(metas, slot, hash, append(META, key, meta.toMap()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    public Meta loadMeta(ID identifier) throws IOException {
+        byte[] key = UTF8.encode(identifier.toString());
+        long hash = metas.hash(key, 0, key.length);
+        Map<String, Object> info;
+        lock.readLock().lock();
+        try {
+            info = find(metas, hash, key);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return info == null ? null : Meta.parse(info);
+    }
+
+    //
+    //  Document
+    //
+
+    /**
+     *  Save document if newer than the old one with same (ID, type)
+     *
+     * @return false on stale
+     */
+    public boolean saveDocument(Document doc) throws IOException {
+        Map<String, Object> info = doc.toMap();
+        GeneralAccountHelper helper = SharedAccountExtensions.helper;
+        ID did = helper.getDocumentID(info);
+        String type = helper.getDocumentType(info, "*");
+        if (did == null) {
+            throw new IllegalArgumentException("document ID not found: " + info);
+        }
+        byte[] key = documentKey(did.toString(), type);
+        long hash = documentHash(key, separatorOf(key));
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(documents, hash, key);
+            if (slot >= 0) {
+                RecordLog.Record record = read(documents.get(slot));
+                Map<String, Object> old = record == null ? null : decode(record);
+                if (old != null && !isNewer(doc, Document.parse(old))) {
+                    return false;
+                }
+            }
+            store(documents, slot, hash, append(DOCUMENT, key, info));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    /**
+     *  Check whether the document is newer than the old one;
+     *  document without time is older than any one with time
+     *  (same as DocumentIndex)
+     */
+    protected boolean isNewer(Document doc, Document old) {
+        if (old == null) {
+            return true;
+        }
+        Date newTime = doc.getTime();
+        if (newTime == null) {
+            return false;
+        }
+        Date oldTime = old.getTime();
+        return oldTime == null || newTime.after(oldTime);
+    }
+
+    public Document loadDocument(ID identifier, String type) throws IOException {
+        byte[] key = documentKey(identifier.toString(), type);
+        long hash = documentHash(key, separatorOf(key));
+        Map<String, Object> info;
+        lock.readLock().lock();
+        try {
+            info = find(documents, hash, key);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return info == null ? null : Document.parse(info);
+    }
+
+    public List<Document> loadDocuments(ID identifier) throws IOException {
+        byte[] prefix = UTF8.encode(identifier.toString() + '\t');
+        long hash = documents.hash(prefix, 0, prefix.length - 1);
+        List<Map<String, Object>> records = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int slot = -1;
+            RecordLog.Record record;
+            Map<String, Object> info;
+            while ((slot = documents.find(hash, ID_BITS, slot)) >= 0) {
+                record = read(documents.get(slot));
+                if (record == null || !startsWith(record.getKey(), prefix)) {
+                    continue;
+                }
+                info = decode(record);
+                if (info != null) {
+                    records.add(info);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Document> array = new ArrayList<>(records.size());
+        Document doc;
+        for (Map<String, Object> item : records) {
+            doc = Document.parse(item);
+            if (doc != null) {
+                array.add(doc);
+            }
+        }
+        return array;
+    }
+
+    private static boolean startsWith(byte[] key, byte[] prefix) {
+        if (key.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; ++i) {
+            if (key[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //
+    //  Maintenance
+    //
+
+    /**
+     *  Force all data to disk
+     */
+    public void flush() throws IOException {
+        lock.readLock().lock();
+        try {
+            getLog().flush();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     *  Copy live records to a new log, then replace the old log by atomic rename;
+     *  if crashed before renaming, the old log is still complete.
+     */
+    public void compact() throws IOException {
+        File target = getCompactingFile();
+        lock.writeLock().lock();
+        try {
+            Files.deleteIfExists(target.toPath());
+            // new locations (by slot), applied after the new log takes place
+            long[] metaLocations = new long[metas.capacity()];
+            long[] docLocations = new long[documents.capacity()];
+            RecordLog newLog = new RecordLog(target, false);
+            try {
+                copy(newLog, metas, metaLocations);
+                copy(newLog, documents, docLocations);
+                newLog.flush();
+            } finally {
+                newLog.close();
+            }
+            getLog().close();
+            // if reopening fails below, the store stays closed
+            log = null;
+            try {
+                Files.move(target.toPath(), file.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                // not moved, the old log is still complete
+                log = new RecordLog(file, sync);
+                throw e;
+            }
+            log = new RecordLog(file, sync);
+            update(metas, metaLocations);
+            update(documents, docLocations);
+            staleBytes.set(0);
+            // make the rename durable
+            syncDirectory(file.getAbsoluteFile().getParentFile());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void copy(RecordLog newLog, LocationTable table, long[] newLocations) throws IOException {
+        long loc;
+        RecordLog.Record record;
+        for (int slot = 0; slot < newLocations.length; ++slot) {
+            if (table.isEmpty(slot)) {
+                continue;
+            }
+            loc = table.get(slot);
+            record = read(loc);
+            if (record == null) {
+                throw new IOException("record corrupted at " + offsetOf(loc));
+            }
+            newLocations[slot] = location(newLog.append(record.getKind(), record.getKey(), record.getValue()), lengthOf(loc));
+        }
+    }
+
+    private static void syncDirectory(File dir) throws IOException {
+        if (dir == null) {
+            return;
+        }
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir.toPath(), StandardOpenOption.READ);
+        } catch (IOException e) {
+            // directories cannot be opened on some platforms (Windows),
+            // where renaming is durable without it
+            return;
+        }
+        try {
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static void update(LocationTable table, long[] newLocations) {
+        for (int slot = 0; slot < newLocations.length; ++slot) {
+            if (!table.isEmpty(slot)) {
+                table.set(slot, newLocations[slot]);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (log != null) {
+                log.close();
+                log = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+}
@@ -0,0 +1,162 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.storage;
+
+import java.security.SecureRandom;
+
+/**
+ *  Location Table
+ *  <p>
+ *      Open addressing table of (hash, location) in two long arrays,
+ *      16 bytes per slot, no object for each entry;
+ *      entries with the same hash are all kept,
+ *      callers tell them apart by the record keys.
+ *  </p>
+ *
+ *  <pre>
+ *  Not thread-safe, entries are never removed.
+ *  The slot is chosen by the high 32 bits of the hash only,
+ *  so low bits can be used for sub-keys (see find()).
+ *  </pre>
+ */
+final class LocationTable {
+
+    static final long ALL_BITS = -1L;
+
+    private long[] hashes;     // 0 for empty slot
+    private long[] locations;
+    private int count = 0;
+
+    private final long seed = new SecureRandom().nextLong();
+
+    LocationTable(int capacity) {
+        super();
+        int size = 16;
+        while (size * 3 < capacity * 4) {
+            size <<= 1;
+        }
+        hashes = new long[size];
+        locations = new long[size];
+    }
+
+    /**
+     *  Seeded 64-bit hash of bytes, never 0
+     */
+    long hash(byte[] data, int offset, int length) {
+        long h = seed ^ length;
+        int end = offset + length;
+        for (int i = offset; i < end; ++i) {
+            h = (h ^ (data[i] & 0xFF)) * 0x100000001B3L;
+        }
+        // finalizer (MurmurHash3 fmix64)
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    private static int start(long hash, int length) {
+        return (int) (hash >>> 32) & (length - 1);
+    }
+
+    /**
+     *  Find next slot with the hash
+     *
+     * @param hash - hash to match
+     * @param bits - bits of hash to compare (high 32 bits must be included)
+     * @param slot - previous slot found, -1 to start
+     * @return -1 on not found
+     */
+    int find(long hash, long bits, int slot) {
+        int mask = hashes.length - 1;
+        int index = slot < 0 ? start(hash, hashes.length) : (slot + 1) & mask;
+        long value;
+        while ((value = hashes[index]) != 0) {
+            if (((value ^ hash) & bits) == 0) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    long get(int slot) {
+        return locations[slot];
+    }
+
+    void set(int slot, long location) {
+        locations[slot] = location;
+    }
+
+    void add(long hash, long location) {
+        if ((count + 1) * 4 > hashes.length * 3) {
+            resize(hashes.length << 1);
+        }
+        insert(hashes, locations, hash, location);
+        ++count;
+    }
+
+    private static void insert(long[] hashes, long[] locations, long hash, long location) {
+        int mask = hashes.length - 1;
+        int index = start(hash, hashes.length);
+        while (hashes[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        hashes[index] = hash;
+        locations[index] = location;
+    }
+
+    private void resize(int size) {
+        long[] newHashes = new long[size];
+        long[] newLocations = new long[size];
+        for (int i = 0; i < hashes.length; ++i) {
+            if (hashes[i] != 0) {
+                insert(newHashes, newLocations, hashes[i], locations[i]);
+            }
+        }
+        hashes = newHashes;
+        locations = newLocations;
+    }
+
+    //
+    //  Slots
+    //
+
+    int size() {
+        return count;
+    }
+
+    int capacity() {
+        return hashes.length;
+    }
+
+    boolean isEmpty(int slot) {
+        return hashes[slot] == 0;
+    }
+
+}
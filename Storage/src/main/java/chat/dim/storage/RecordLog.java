@@ -0,0 +1,334 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.storage;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ *  Append-only Record Log
+ *  <p>
+ *      Records are appended to the end of file and never changed;
+ *      each record carries a CRC32, so a torn write at the tail
+ *      (crash while appending) is detected and cut off on recovery.
+ *  </p>
+ *
+ *  <blockquote><pre>
+ *  record format (big-endian):
+ *      [1]  kind
+ *      [2]  key length
+ *      [4]  value length
+ *      [n]  key
+ *      [m]  value
+ *      [4]  CRC32 of all bytes above
+ *  </pre></blockquote>
+ */
+public class RecordLog implements Closeable {
+
+    public static final int HEADER_SIZE = 7;
+    public static final int TRAILER_SIZE = 4;
+
+    /**
+     *  Max bytes mapped at once when scanning
+     */
+    public static int WINDOW_SIZE = 64 << 20;
+
+    private final File file;
+    private final FileChannel channel;
+    private final boolean sync;
+
+    private long tail;
+
+    /**
+     *  Open log file
+     *
+     * @param file - log file, created if not exists
+     * @param sync - force data to disk after each append
+     */
+    public RecordLog(File file, boolean sync) throws IOException {
+        super();
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.sync = sync;
+        this.tail = channel.size();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     *  Length of valid data
+     */
+    public long size() {
+        return tail;
+    }
+
+    /**
+     *  Record visitor for recovery
+     */
+    public interface Visitor {
+
+        /**
+         *  Visit a valid record
+         *
+         * @param kind   - record kind
+         * @param key    - record key
+         * @param offset - record position in file
+         * @param length - total length of record
+         */
+        void visit(int kind, byte[] key, long offset, int length) throws IOException;
+    }
+
+    /**
+     *  Scan all records with memory-mapped windows, stop at the first
+     *  incomplete or corrupted record, and cut off the rest
+     *
+     * @param visitor - callback for valid records
+     * @return length of valid data
+     */
+    public long recover(Visitor visitor) throws IOException {
+        long end = channel.size();
+        long pos = 0;
+        long base = 0;
+        MappedByteBuffer window = null;
+        CRC32 crc = new CRC32();
+        int offset, kind, keyLength, valueLength, total;
+        ByteBuffer slice;
+        byte[] key;
+        while (pos + HEADER_SIZE + TRAILER_SIZE <= end) {
+            if (window == null || pos + HEADER_SIZE > base + window.limit()) {
+                base = pos;
+                window = map(base, Math.min(WINDOW_SIZE, end - base));
+            }
+            offset = (int) (pos - base);
+            kind = window.get(offset);
+            keyLength = window.getShort(offset + 1) & 0xFFFF;
+            valueLength = window.getInt(offset + 3);
+            if (kind <= 0 || valueLength < 0 || valueLength > Integer.MAX_VALUE - HEADER_SIZE - TRAILER_SIZE - keyLength) {
+                // corrupted
+                break;
+            }
+            total = HEADER_SIZE + keyLength + valueLength + TRAILER_SIZE;
+            if (pos + total > end) {
+                // incomplete
+                break;
+            } else if (pos + total > base + window.limit()) {
+                base = pos;
+                window = map(base, Math.min(Math.max(WINDOW_SIZE, total), end - base));
+                offset = 0;
+            }
+            slice = window.duplicate();
+            slice.limit(offset + total - TRAILER_SIZE);
+            slice.position(offset);
+            crc.reset();
+            crc.update(slice);
+            if ((int) crc.getValue() != window.getInt(offset + total - TRAILER_SIZE)) {
+                // corrupted
+                break;
+            }
+            key = new byte[keyLength];
+            slice.position(offset + HEADER_SIZE);
+            slice.get(key);
+            visitor.visit(kind, key, pos, total);
+            pos += total;
+        }
+        // mapped windows are released by GC
+        tail = pos;
+        if (pos < end) {
+            cutTail();
+        }
+        return pos;
+    }
+
+    private MappedByteBuffer map(long position, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+
+    /**
+     *  Cut off data after the tail;
+     *  a file cannot be truncated while still mapped on some platforms (Windows),
+     *  then new records overwrite the bad data, and it is cut again on close
+     */
+    private void cutTail() {
+        try {
+            channel.truncate(tail);
+            channel.force(true);
+        } catch (IOException e) {
+            // try again on close
+        }
+    }
+
+    /**
+     *  Append a record
+     *
+     * @return record position in file
+     */
+    public long append(int kind, byte[] key, byte[] value) throws IOException {
+        assert kind > 0 && kind < 128 : "record kind error: " + kind;
+        assert key.length <= 0xFFFF : "record key too long: " + key.length;
+        int total = HEADER_SIZE + key.length + value.length + TRAILER_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        buffer.put((byte) kind);
+        buffer.putShort((short) key.length);
+        buffer.putInt(value.length);
+        buffer.put(key);
+        buffer.put(value);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        long position = tail;
+        writeFully(buffer, position);
+        if (sync) {
+            channel.force(false);
+        }
+        tail = position + total;
+        return position;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        int cnt;
+        while (buffer.hasRemaining()) {
+            cnt = channel.read(buffer, position);
+            if (cnt < 0) {
+                throw new EOFException("record truncated at " + position);
+            }
+            position += cnt;
+        }
+    }
+
+    /**
+     *  Read value of the record
+     *
+     * @param offset - record position
+     * @param length - total length of record
+     * @return null on CRC error
+     */
+    public byte[] read(long offset, int length) throws IOException {
+        Record record = readRecord(offset, length);
+        return record == null ? null : record.getValue();
+    }
+
+    /**
+     *  Read the whole record
+     *
+     * @param offset - record position
+     * @param length - total length of record
+     * @return null on CRC error
+     */
+    public Record readRecord(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(buffer, offset);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, length - TRAILER_SIZE);
+        if ((int) crc.getValue() != buffer.getInt(length - TRAILER_SIZE)) {
+            assert false : "record corrupted at " + offset;
+            return null;
+        }
+        int kind = buffer.get(0);
+        int keyLength = buffer.getShort(1) & 0xFFFF;
+        int valueLength = buffer.getInt(3);
+        byte[] key = new byte[keyLength];
+        byte[] value = new byte[valueLength];
+        System.arraycopy(buffer.array(), HEADER_SIZE, key, 0, keyLength);
+        System.arraycopy(buffer.array(), HEADER_SIZE + keyLength, value, 0, valueLength);
+        return new Record(kind, key, value);
+    }
+
+    /**
+     *  Read key of the record, without reading the value
+     *
+     * @param offset - record position
+     * @return record key (not checked by CRC)
+     */
+    public byte[] readKey(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, offset);
+        ByteBuffer key = ByteBuffer.allocate(header.getShort(1) & 0xFFFF);
+        readFully(key, offset + HEADER_SIZE);
+        return key.array();
+    }
+
+    /**
+     *  Force all data to disk
+     */
+    public void flush() throws IOException {
+        channel.force(true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen() && channel.size() > tail) {
+            cutTail();
+        }
+        channel.close();
+    }
+
+    /**
+     *  Record read from log
+     */
+    public static class Record {
+
+        private final int kind;
+        private final byte[] key;
+        private final byte[] value;
+
+        public Record(int kind, byte[] key, byte[] value) {
+            super();
+            this.kind = kind;
+            this.key = key;
+            this.value = value;
+        }
+
+        public int getKind() {
+            return kind;
+        }
+
+        public byte[] getKey() {
+            return key;
+        }
+
+        public byte[] getValue() {
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,279 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import chat.dim.data.Converter;
+import chat.dim.ext.BaseAccountHelper;
+import chat.dim.mkm.Identifier;
+import chat.dim.protocol.Address;
+import chat.dim.protocol.Document;
+import chat.dim.protocol.ID;
+import chat.dim.protocol.Meta;
+import chat.dim.protocol.SignKey;
+import chat.dim.protocol.TransportableData;
+import chat.dim.protocol.VerifyKey;
+
+public class AccountStoreTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        BaseAccountHelper helper = new BaseAccountHelper();
+        helper.install();
+        helper.setIDFactory(new ID.Factory() {
+            @Override
+            public ID generateID(Meta meta, int network) {
+                return null;
+            }
+
+            @Override
+            public ID createID(String name, Address address, String terminal) {
+                return null;
+            }
+
+            @Override
+            public ID parseID(String identifier) {
+                return new Identifier(identifier, null, null, null);
+            }
+        });
+        helper.setMetaFactory("1", new Meta.Factory() {
+            @Override
+            public Meta createMeta(VerifyKey pKey, String seed, TransportableData fingerprint) {
+                return null;
+            }
+
+            @Override
+            public Meta generateMeta(SignKey sKey, String seed) {
+                return null;
+            }
+
+            @Override
+            public Meta parseMeta(Map<String, Object> meta) {
+                return (Meta) wrap(Meta.class, meta);
+            }
+        });
+        helper.setDocumentFactory("*", new Document.Factory() {
+            @Override
+            public Document createDocument(String data, TransportableData signature) {
+                return null;
+            }
+
+            @Override
+            public Document parseDocument(Map<String, Object> doc) {
+                return (Document) wrap(Document.class, doc);
+            }
+        });
+        file = File.createTempFile("accounts", ".db");
+    }
+
+    @After
+    public void tearDown() {
+        Assert.assertTrue(file.delete());
+    }
+
+    /**
+     *  Simple meta/document backed by a map
+     */
+    private static Object wrap(Class<?> clazz, final Map<String, Object> info) {
+        return Proxy.newProxyInstance(clazz.getClassLoader(), new Class[]{clazz}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if ("toMap".equals(name)) {
+                    return info;
+                } else if ("getTime".equals(name)) {
+                    return Converter.getDateTime(info.get("time"), null);
+                } else if ("toString".equals(name)) {
+                    return info.toString();
+                }
+                return null;
+            }
+        });
+    }
+
+    private static ID id(int index) {
+        return new Identifier("user" + index + "@address", null, null, null);
+    }
+
+    private static Meta meta(int index) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("type", "1");
+        info.put("seed", "user" + index);
+        info.put("key", "key" + index);
+        return (Meta) wrap(Meta.class, info);
+    }
+
+    private static Document doc(int index, String type, Object time, String text) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("did", id(index).toString());
+        info.put("type", type);
+        if (time != null) {
+            info.put("time", time);
+        }
+        info.put("data", text);
+        return (Document) wrap(Document.class, info);
+    }
+
+    private static Object dataOf(Document doc) {
+        return doc.toMap().get("data");
+    }
+
+    @Test
+    public void testMetaReopen() throws IOException {
+        AccountStore store = new AccountStore(file, false);
+        for (int i = 0; i < 100; ++i) {
+            Assert.assertTrue(store.saveMeta(id(i), meta(i)));
+        }
+        // meta never changes
+        Assert.assertFalse(store.saveMeta(id(7), meta(8)));
+        Assert.assertEquals(0, store.getStaleBytes());
+        store.close();
+
+        store = new AccountStore(file, false);
+        Assert.assertEquals(100, store.getMetaCount());
+        Assert.assertEquals("key7", store.loadMeta(id(7)).toMap().get("key"));
+        Assert.assertEquals("key99", store.loadMeta(id(99)).toMap().get("key"));
+        Assert.assertNull(store.loadMeta(id(100)));
+        store.close();
+    }
+
+    @Test
+    public void testReplaceDocument() throws IOException {
+        AccountStore store = new AccountStore(file, false);
+        Assert.assertTrue(store.saveDocument(doc(1, "visa", 100, "v1")));
+        Assert.assertTrue(store.saveDocument(doc(1, "visa", 200, "v2")));
+        // equal or older time
+        Assert.assertFalse(store.saveDocument(doc(1, "visa", 200, "v3")));
+        Assert.assertFalse(store.saveDocument(doc(1, "visa", 150, "v4")));
+        // no time
+        Assert.assertFalse(store.saveDocument(doc(1, "visa", null, "v5")));
+        Assert.assertEquals("v2", dataOf(store.loadDocument(id(1), "visa")));
+        Assert.assertTrue(store.getStaleBytes() > 0);
+        store.close();
+
+        store = new AccountStore(file, false);
+        Assert.assertEquals("v2", dataOf(store.loadDocument(id(1), "visa")));
+        Assert.assertTrue(store.getStaleBytes() > 0);
+        store.close();
+    }
+
+    @Test
+    public void testLoadDocuments() throws IOException {
+        AccountStore store = new AccountStore(file, false);
+        store.saveDocument(doc(1, "visa", 100, "visa1"));
+        store.saveDocument(doc(1, "profile", 100, "profile1"));
+        store.saveDocument(doc(1, "bulletin", 100, "bulletin1"));
+        store.saveDocument(doc(2, "visa", 100, "visa2"));
+        List<Document> docs = store.loadDocuments(id(1));
+        Assert.assertEquals(3, docs.size());
+        Assert.assertEquals(1, store.loadDocuments(id(2)).size());
+        Assert.assertEquals(0, store.loadDocuments(id(3)).size());
+        Assert.assertNull(store.loadDocument(id(2), "profile"));
+        store.close();
+    }
+
+    @Test
+    public void testTornTail() throws IOException {
+        AccountStore store = new AccountStore(file, false);
+        for (int i = 0; i < 10; ++i) {
+            store.saveMeta(id(i), meta(i));
+        }
+        store.close();
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(raf.length() - 3);
+        raf.close();
+
+        store = new AccountStore(file, false);
+        Assert.assertEquals(9, store.getMetaCount());
+        Assert.assertNull(store.loadMeta(id(9)));
+        // saved again after the last good record
+        Assert.assertTrue(store.saveMeta(id(9), meta(9)));
+        store.close();
+        store = new AccountStore(file, false);
+        Assert.assertEquals(10, store.getMetaCount());
+        Assert.assertEquals("key9", store.loadMeta(id(9)).toMap().get("key"));
+        store.close();
+    }
+
+    @Test
+    public void testCompactReopen() throws IOException {
+        AccountStore store = new AccountStore(file, false);
+        for (int i = 0; i < 20; ++i) {
+            store.saveMeta(id(i), meta(i));
+            for (int t = 1; t <= 5; ++t) {
+                store.saveDocument(doc(i, "visa", t, "visa" + i + "-" + t));
+            }
+        }
+        long size = store.getFileSize();
+        long stale = store.getStaleBytes();
+        Assert.assertTrue(stale > 0);
+        store.compact();
+        Assert.assertEquals(0, store.getStaleBytes());
+        Assert.assertEquals(size - stale, store.getFileSize());
+        Assert.assertEquals(size - stale, file.length());
+        Assert.assertEquals("visa3-5", dataOf(store.loadDocument(id(3), "visa")));
+        Assert.assertEquals("key3", store.loadMeta(id(3)).toMap().get("key"));
+        // still writable
+        Assert.assertTrue(store.saveDocument(doc(3, "visa", 6, "visa3-6")));
+        store.close();
+
+        store = new AccountStore(file, false);
+        Assert.assertEquals(20, store.getMetaCount());
+        Assert.assertEquals("visa3-6", dataOf(store.loadDocument(id(3), "visa")));
+        Assert.assertEquals("visa19-5", dataOf(store.loadDocument(id(19), "visa")));
+        store.close();
+    }
+
+    @Test
+    public void testClosed() throws IOException {
+        AccountStore store = new AccountStore(file, false);
+        store.saveMeta(id(1), meta(1));
+        store.close();
+        try {
+            store.loadMeta(id(1));
+            Assert.fail("closed store should not be read");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+}
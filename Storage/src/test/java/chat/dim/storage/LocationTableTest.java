@@ -0,0 +1,109 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.storage;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LocationTableTest {
+
+    private static long hashOf(LocationTable table, int value) {
+        byte[] data = ByteBuffer.allocate(4).putInt(value).array();
+        return table.hash(data, 0, data.length);
+    }
+
+    private static int count(LocationTable table, long hash, long bits) {
+        int count = 0;
+        int slot = -1;
+        while ((slot = table.find(hash, bits, slot)) >= 0) {
+            ++count;
+        }
+        return count;
+    }
+
+    @Test
+    public void testResize() {
+        LocationTable table = new LocationTable(16);
+        int capacity = table.capacity();
+        int total = 10000;
+        for (int i = 0; i < total; ++i) {
+            table.add(hashOf(table, i), i);
+        }
+        Assert.assertEquals(total, table.size());
+        Assert.assertTrue(table.capacity() > capacity);
+        Assert.assertTrue(table.capacity() * 3 >= total * 4);
+        int slot;
+        for (int i = 0; i < total; ++i) {
+            slot = table.find(hashOf(table, i), LocationTable.ALL_BITS, -1);
+            Assert.assertTrue(slot >= 0);
+            Assert.assertEquals(i, table.get(slot));
+        }
+        Assert.assertEquals(-1, table.find(hashOf(table, total), LocationTable.ALL_BITS, -1));
+    }
+
+    @Test
+    public void testCollisions() {
+        LocationTable table = new LocationTable(16);
+        long hash = hashOf(table, 1);
+        for (int i = 0; i < 5; ++i) {
+            table.add(hash, 100 + i);
+        }
+        table.add(hashOf(table, 2), 200);
+        // all entries with the same hash are kept
+        long sum = 0;
+        int slot = -1;
+        while ((slot = table.find(hash, LocationTable.ALL_BITS, slot)) >= 0) {
+            sum += table.get(slot);
+        }
+        Assert.assertEquals(100 + 101 + 102 + 103 + 104, sum);
+        // still found after resizing
+        for (int i = 10; i < 100; ++i) {
+            table.add(hashOf(table, i), i);
+        }
+        Assert.assertEquals(5, count(table, hash, LocationTable.ALL_BITS));
+        slot = table.find(hashOf(table, 2), LocationTable.ALL_BITS, -1);
+        Assert.assertEquals(200, table.get(slot));
+        // update in place
+        table.set(slot, 201);
+        Assert.assertEquals(201, table.get(table.find(hashOf(table, 2), LocationTable.ALL_BITS, -1)));
+    }
+
+    @Test
+    public void testSubKeyBits() {
+        LocationTable table = new LocationTable(16);
+        long bits = ~0xFFFFL;
+        long hash = hashOf(table, 7) & bits;
+        table.add(hash | 1, 1);
+        table.add(hash | 2, 2);
+        table.add(hashOf(table, 8), 3);
+        Assert.assertEquals(2, count(table, hash, bits));
+        Assert.assertEquals(1, count(table, hash | 2, LocationTable.ALL_BITS));
+        Assert.assertEquals(0, count(table, hash | 3, LocationTable.ALL_BITS));
+    }
+
+}
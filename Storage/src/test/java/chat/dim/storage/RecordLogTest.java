@@ -0,0 +1,171 @@
+/* license: https://mit-license.org
+ * ==============================================================================
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2026 Albert Moky
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ * ==============================================================================
+ */
+package chat.dim.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RecordLogTest {
+
+    private File file;
+    private int windowSize;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("records", ".log");
+        windowSize = RecordLog.WINDOW_SIZE;
+    }
+
+    @After
+    public void tearDown() {
+        RecordLog.WINDOW_SIZE = windowSize;
+        Assert.assertTrue(file.delete());
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     *  Collect keys of valid records
+     */
+    private static List<String> recover(RecordLog log) throws IOException {
+        final List<String> keys = new ArrayList<>();
+        log.recover(new RecordLog.Visitor() {
+            @Override
+            public void visit(int kind, byte[] key, long offset, int length) {
+                keys.add(new String(key, StandardCharsets.UTF_8));
+            }
+        });
+        return keys;
+    }
+
+    private long appendRecords(int count) throws IOException {
+        RecordLog log = new RecordLog(file, false);
+        long end = 0;
+        for (int i = 0; i < count; ++i) {
+            log.append(1, bytes("key" + i), bytes("value" + i));
+            end = log.size();
+        }
+        log.close();
+        return end;
+    }
+
+    @Test
+    public void testAppendReopen() throws IOException {
+        RecordLog log = new RecordLog(file, false);
+        long offset = log.append(1, bytes("moky"), bytes("hello"));
+        int length = (int) log.size();
+        log.append(2, bytes("hulk"), bytes("world"));
+        log.close();
+
+        log = new RecordLog(file, false);
+        List<String> keys = recover(log);
+        Assert.assertEquals(2, keys.size());
+        Assert.assertEquals("moky", keys.get(0));
+        Assert.assertEquals("hulk", keys.get(1));
+        Assert.assertArrayEquals(bytes("hello"), log.read(offset, length));
+        RecordLog.Record record = log.readRecord(offset, length);
+        Assert.assertEquals(1, record.getKind());
+        Assert.assertArrayEquals(bytes("moky"), record.getKey());
+        Assert.assertArrayEquals(bytes("moky"), log.readKey(offset));
+        log.close();
+    }
+
+    @Test
+    public void testTornTail() throws IOException {
+        long first = appendRecords(1);
+        RecordLog log = new RecordLog(file, false);
+        log.append(1, bytes("key1"), bytes("value1"));
+        log.close();
+        // crash while appending the second record
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(raf.length() - 3);
+        raf.close();
+
+        log = new RecordLog(file, false);
+        Assert.assertEquals(1, recover(log).size());
+        Assert.assertEquals(first, log.size());
+        Assert.assertEquals(first, file.length());
+        // appending goes on after the last good record
+        log.append(1, bytes("key2"), bytes("value2"));
+        log.close();
+        log = new RecordLog(file, false);
+        Assert.assertEquals(2, recover(log).size());
+        log.close();
+    }
+
+    @Test
+    public void testCorruptedCRC() throws IOException {
+        long end = appendRecords(3);
+        long recordSize = end / 3;
+        // flip a byte in the value of the second record
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        long pos = recordSize + RecordLog.HEADER_SIZE + 4;
+        raf.seek(pos);
+        int b = raf.read();
+        raf.seek(pos);
+        raf.write(b ^ 0xFF);
+        raf.close();
+
+        RecordLog log = new RecordLog(file, false);
+        List<String> keys = recover(log);
+        log.close();
+        Assert.assertEquals(1, keys.size());
+        Assert.assertEquals("key0", keys.get(0));
+        Assert.assertEquals(recordSize, file.length());
+    }
+
+    @Test
+    public void testSmallWindows() throws IOException {
+        RecordLog.WINDOW_SIZE = 32;
+        RecordLog log = new RecordLog(file, false);
+        for (int i = 0; i < 100; ++i) {
+            log.append(1, bytes("key" + i), bytes("value" + i));
+        }
+        // larger than a window
+        byte[] large = new byte[1000];
+        log.append(1, bytes("large"), large);
+        log.close();
+
+        log = new RecordLog(file, false);
+        List<String> keys = recover(log);
+        log.close();
+        Assert.assertEquals(101, keys.size());
+        Assert.assertEquals("key99", keys.get(99));
+        Assert.assertEquals("large", keys.get(100));
+    }
+
+}